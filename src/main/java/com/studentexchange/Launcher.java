@@ -1,9 +1,19 @@
 package com.studentexchange;
 
+import com.studentexchange.server.ExchangeHttpServer;
 import javafx.application.Application;
 
 public class Launcher {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // --server[=port], --replicate[=port], --replica-of=host:port or
+        // --archive=dir[,days] run the HTTP API headless instead of the desktop UI
+        for (String arg : args) {
+            if (arg.startsWith("--server") || arg.startsWith("--replicate") || arg.startsWith("--replica-of=")
+                    || arg.startsWith("--archive=")) {
+                ExchangeHttpServer.main(args);
+                return;
+            }
+        }
         Application.launch(Main.class, args);
     }
 }
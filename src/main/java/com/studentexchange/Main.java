@@ -1,10 +1,15 @@
 package com.studentexchange;
 
+import com.studentexchange.enums.ShippingStatus;
 import com.studentexchange.gui.*;
 import com.studentexchange.models.*;
+import com.studentexchange.services.AsyncExchange;
+import com.studentexchange.services.ShippingSlaMonitor;
 import com.studentexchange.services.StudentBookExchange;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
@@ -12,18 +17,48 @@ public class Main extends Application {
     public static Stage primaryStage;
     private DashboardWrapper dashboardWrapper;
     private StudentBookExchange system = new StudentBookExchange();
+    private AsyncExchange async = new AsyncExchange(system);
     private User currentUser;
     private Item selectedItem;
 
     @Override
     public void start(Stage primaryStage) throws Exception {
         this.primaryStage = primaryStage;
+        ShippingSlaMonitor slaMonitor = system.getShippingSlaMonitor();
+        slaMonitor.addListener(ShippingSlaMonitor.logTo(System.err));
+        slaMonitor.addListener(this::showSlaExpired);
+        slaMonitor.start();
+        system.getPopularityRollup().start();
         showDemo();
         primaryStage.show();
     }
 
-    public StudentBookExchange getSystem() {
-        return system;
+    @Override
+    public void stop() {
+        system.getShippingSlaMonitor().stop();
+        system.getPopularityRollup().stop();
+        async.close();
+    }
+
+    // Tells the signed-in user when one of their own transactions misses its shipping deadline
+    private void showSlaExpired(Transaction transaction, ShippingStatus status, long overdueMillis) {
+        Platform.runLater(() -> {
+            User user = currentUser;
+            if (user == null || (!transaction.getBuyer().equals(user) && !transaction.getSeller().equals(user))) {
+                return;
+            }
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle("Shipping overdue");
+            alert.setHeaderText(null);
+            alert.setContentText(ShippingSlaMonitor.describe(transaction, status, overdueMillis));
+            alert.show();
+        });
+    }
+
+    // Screens reach the exchange only through the async facade, so no call
+    // blocks the FX thread
+    public AsyncExchange getAsync() {
+        return async;
     }
 
     public User getCurrentUser() {
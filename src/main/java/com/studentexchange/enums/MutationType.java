@@ -0,0 +1,6 @@
+package com.studentexchange.enums;
+
+public enum MutationType {
+    REGISTER_USER, UPDATE_PROFILE, UPLOAD_BOOK, ADD_ITEM, EDIT_ITEM, REMOVE_ITEM, ITEM_COUNTS, ADJUST_CREDITS,
+    PURCHASE, CHECKOUT, UPDATE_SHIPPING, SUBMIT_REVIEW, ARCHIVE, SUGGESTION_PICKED
+}
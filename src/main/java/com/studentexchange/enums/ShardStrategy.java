@@ -0,0 +1,5 @@
+package com.studentexchange.enums;
+
+public enum ShardStrategy {
+    CATEGORY, ITEM_HASH
+}
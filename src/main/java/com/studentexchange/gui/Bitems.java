@@ -1,10 +1,14 @@
 package com.studentexchange.gui;
 
 import com.studentexchange.Main;
+import com.studentexchange.models.FacetCounts;
 import com.studentexchange.models.Item;
 import com.studentexchange.models.ForSaleItem;
+import com.studentexchange.services.AsyncExchange;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
@@ -12,12 +16,15 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class Bitems {
     Main main;
     BorderPane root;
     private VBox itemsBox;
+    private Label facetLabel;
     private Item selectedItem;
+    private long loadRequest;
 
     public Bitems(Main main) {
         this.main = main;
@@ -52,10 +59,42 @@ public class Bitems {
             loadItems(keyword);
         });
 
+        ContextMenu suggestions = new ContextMenu();
+        searchField.textProperty().addListener((obs, oldText, newText) -> {
+            main.getAsync().autocompleteAsync(newText, 8).thenAccept(completions -> Platform.runLater(() -> {
+                // Ignore suggestions for text the user has already typed past
+                if (!newText.equals(searchField.getText())) {
+                    return;
+                }
+                if (completions.isEmpty() || !searchField.isFocused()) {
+                    suggestions.hide();
+                    return;
+                }
+                suggestions.getItems().clear();
+                for (String completion : completions) {
+                    MenuItem suggestion = new MenuItem(completion);
+                    suggestion.setOnAction(ev -> {
+                        main.getAsync().recordSuggestionPickedAsync(completion);
+                        searchField.setText(completion);
+                        suggestions.hide();
+                        loadItems(completion);
+                    });
+                    suggestions.getItems().add(suggestion);
+                }
+                if (!suggestions.isShowing()) {
+                    suggestions.show(searchField, Side.BOTTOM, 0, 0);
+                }
+            }));
+        });
+
         searchBox.getChildren().addAll(searchField, searchBtn);
         centerBox.getChildren().add(searchBox);
 
 
+        facetLabel = new Label();
+        facetLabel.setStyle("-fx-text-fill: #aaaaaa;");
+        centerBox.getChildren().add(facetLabel);
+
         itemsBox = new VBox(15);
         itemsBox.setPadding(new Insets(10));
         itemsBox.setStyle("-fx-background-color: #1c1c1c;");
@@ -91,12 +130,32 @@ public class Bitems {
     private void loadItems(String keyword) {
         itemsBox.getChildren().clear();
 
-        List<Item> items;
-        if (keyword.isEmpty()) {
-            items = main.getSystem().getCatalog().getItems();
-        } else {
-            items = main.getSystem().searchItems(keyword, null, null, 0, Float.MAX_VALUE, null, null);
-        }
+        // Items load off the FX thread; a newer search supersedes any result
+        // still in flight. Facets come from the catalog shards or the search
+        // index and cover every match, not just the items listed, for the same
+        // query the list used, typo-tolerant fallback included.
+        long request = ++loadRequest;
+        CompletableFuture<List<Item>> items = keyword.isEmpty()
+                ? main.getAsync().getAvailableItemsAsync()
+                : main.getAsync().searchWithFallbackAsync(keyword, 50);
+        CompletableFuture<FacetCounts> facets = keyword.isEmpty()
+                ? main.getAsync().getFacetsAsync(null, null, null, null, null, null, null)
+                : main.getAsync().getRankedFacetsWithFallbackAsync(keyword);
+
+        items.thenAcceptBoth(facets, (found, counts) -> Platform.runLater(() -> {
+                    if (request == loadRequest) {
+                        showItems(found, counts);
+                    }
+                }))
+                .exceptionally(ex -> {
+                    Platform.runLater(() -> showAlert("Error", "Search failed: " + AsyncExchange.messageOf(ex)));
+                    return null;
+                });
+    }
+
+    private void showItems(List<Item> items, FacetCounts facets) {
+        itemsBox.getChildren().clear();
+        facetLabel.setText(facets.toString());
 
         if (items.isEmpty()) {
             Label noItems = new Label("No items found");
@@ -104,19 +163,18 @@ public class Bitems {
             itemsBox.getChildren().add(noItems);
         } else {
             for (Item item : items) {
+                // Results already cover live inventory only, so no sold check is needed
                 if (item instanceof ForSaleItem) {
                     ForSaleItem forSaleItem = (ForSaleItem) item;
-                    if (!forSaleItem.isIs_sold()) {
-                        Button itemBtn = new Button(item.getTitle() + " - Rs." + forSaleItem.getPrice());
-                        itemBtn.setStyle("-fx-text-fill: white; -fx-background-color: #2c2c2c;");
-                        itemBtn.setPrefWidth(400);
-                        itemBtn.setAlignment(Pos.CENTER_LEFT);
-                        itemBtn.setOnAction(e -> {
-                            selectedItem = item;
-                            highlightSelection(itemBtn);
-                        });
-                        itemsBox.getChildren().add(itemBtn);
-                    }
+                    Button itemBtn = new Button(item.getTitle() + " - Rs." + forSaleItem.getPrice());
+                    itemBtn.setStyle("-fx-text-fill: white; -fx-background-color: #2c2c2c;");
+                    itemBtn.setPrefWidth(400);
+                    itemBtn.setAlignment(Pos.CENTER_LEFT);
+                    itemBtn.setOnAction(e -> {
+                        selectedItem = item;
+                        highlightSelection(itemBtn);
+                    });
+                    itemsBox.getChildren().add(itemBtn);
                 }
             }
         }
@@ -137,6 +195,8 @@ public class Bitems {
             return;
         }
 
+        main.getAsync().viewItemAsync(selectedItem);
+
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Item Details");
         alert.setHeaderText(selectedItem.getTitle());
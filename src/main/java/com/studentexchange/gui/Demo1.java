@@ -1,7 +1,8 @@
 package com.studentexchange.gui;
 
 import com.studentexchange.Main;
-import com.studentexchange.models.User;
+import com.studentexchange.services.AsyncExchange;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -58,18 +59,17 @@ public class Demo1 {
                 return;
             }
 
-            try {
-                User user = main.getSystem().login(email, password);
-                if (user != null) {
+            main.getAsync().loginAsync(email, password).whenComplete((user, ex) -> Platform.runLater(() -> {
+                if (ex != null) {
+                    showAlert("Error", "Login failed: " + AsyncExchange.messageOf(ex));
+                } else if (user != null) {
                     main.setCurrentUser(user);
                     showAlert("Success", "Login successful!");
                     main.showDashboardScreen();
                 } else {
                     showAlert("Error", "Invalid email or password");
                 }
-            } catch (Exception ex) {
-                showAlert("Error", "Login failed: " + ex.getMessage());
-            }
+            }));
         });
 
         Button backBtn = new Button("Back");
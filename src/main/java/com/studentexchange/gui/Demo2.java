@@ -1,7 +1,8 @@
 package com.studentexchange.gui;
 
 import com.studentexchange.Main;
-import com.studentexchange.models.User;
+import com.studentexchange.services.AsyncExchange;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -107,16 +108,14 @@ public class Demo2 {
                 return;
             }
 
-            try {
-
-                User newUser = main.getSystem().registerUser(name, cnic, email, password, phone, address);
-                if (newUser != null) {
+            main.getAsync().registerUserAsync(name, cnic, email, password, phone, address).whenComplete((newUser, ex) -> Platform.runLater(() -> {
+                if (ex != null) {
+                    showAlert("Error", "Registration failed: " + AsyncExchange.messageOf(ex));
+                } else if (newUser != null) {
                     showAlert("Success", "Registration successful! Redirecting to login.");
                     main.showLoginScreen();
                 }
-            } catch (Exception ex) {
-                showAlert("Error", "Registration failed: " + ex.getMessage());
-            }
+            }));
         });
 
         Button backBtn = new Button("Back");
@@ -3,6 +3,8 @@ package com.studentexchange.gui;
 import com.studentexchange.Main;
 import com.studentexchange.models.Item;
 import com.studentexchange.models.ForSaleItem;
+import com.studentexchange.services.AsyncExchange;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -69,8 +71,18 @@ public class MUitems {
             return;
         }
 
-        List<Item> myItems = main.getSystem().getCatalog().getItemsBySeller(main.getCurrentUser());
+        main.getAsync().getUploadsAsync(main.getCurrentUser()).whenComplete((myItems, ex) -> Platform.runLater(() -> {
+            if (ex != null) {
+                Label errorLabel = new Label("Error: Cannot load items: " + AsyncExchange.messageOf(ex));
+                errorLabel.setStyle("-fx-text-fill: red; -fx-padding: 5px;");
+                uploadedBox.getChildren().add(errorLabel);
+            } else {
+                showMyItems(myItems);
+            }
+        }));
+    }
 
+    private void showMyItems(List<Item> myItems) {
         if (myItems.isEmpty()) {
             Label noItems = new Label("You haven't uploaded any items yet");
             noItems.setStyle("-fx-text-fill: white; -fx-padding: 5px;");
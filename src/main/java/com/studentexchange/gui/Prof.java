@@ -2,6 +2,7 @@ package com.studentexchange.gui;
 
 import com.studentexchange.Main;
 import com.studentexchange.models.User;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -102,7 +103,9 @@ public class Prof {
 
         Label ratingLabel = new Label("Rating");
         Label colon7 = new Label(":");
-        Label ratingValue = new Label(String.format("%.1f", user.getAverage_rating()));
+        Label ratingValue = new Label("...");
+        main.getAsync().getRatingSummaryAsync(user).thenAccept(rating -> Platform.runLater(() ->
+                ratingValue.setText(String.format("%.1f (%d reviews)", rating.getAverage(), rating.getCount()))));
         grid.add(ratingLabel, 0, 7);
         grid.add(colon7, 1, 7);
         grid.add(ratingValue, 2, 7);
@@ -1,21 +1,27 @@
 package com.studentexchange.gui;
 
 import com.studentexchange.Main;
+import com.studentexchange.models.ArchivedTransaction;
 import com.studentexchange.models.Transaction;
+import com.studentexchange.models.TransactionStatus;
 import com.studentexchange.models.User;
+import com.studentexchange.services.AsyncExchange;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class Tran {
     Main main;
     BorderPane root;
     private VBox transactionBox;
     private Transaction selectedTransaction;
+    private ArchivedTransaction selectedArchived;
+    private Label noTransactions;
 
     public Tran(Main main) {
         this.main = main;
@@ -75,7 +81,7 @@ public class Tran {
         List<Transaction> sellerTransactions = currentUser.getTransactionsAsSeller();
 
         if (buyerTransactions.isEmpty() && sellerTransactions.isEmpty()) {
-            Label noTransactions = new Label("No transactions yet");
+            noTransactions = new Label("No transactions yet");
             noTransactions.setStyle("-fx-text-fill: white; -fx-padding: 5px;");
             transactionBox.getChildren().add(noTransactions);
         } else {
@@ -99,6 +105,44 @@ public class Tran {
                 }
             }
         }
+
+        // Delivered transactions move to the archive and leave the user's lists
+        main.getAsync().getArchivedTransactionsAsync(currentUser).whenComplete((archived, ex) -> Platform.runLater(() -> {
+            if (ex != null) {
+                Label errorLabel = new Label("Error: Cannot load archived transactions: " + AsyncExchange.messageOf(ex));
+                errorLabel.setStyle("-fx-text-fill: red; -fx-padding: 5px;");
+                transactionBox.getChildren().add(errorLabel);
+            } else {
+                showArchived(currentUser, archived);
+            }
+        }));
+    }
+
+    private void showArchived(User currentUser, List<ArchivedTransaction> archived) {
+        if (archived.isEmpty()) {
+            return;
+        }
+        if (noTransactions != null) {
+            transactionBox.getChildren().remove(noTransactions);
+        }
+
+        Label archivedLabel = new Label("Archived:");
+        archivedLabel.setStyle("-fx-text-fill: teal; -fx-font-weight: bold; -fx-padding: 5px;");
+        transactionBox.getChildren().add(archivedLabel);
+
+        for (ArchivedTransaction a : archived) {
+            String type = a.getBuyer_id().equals(currentUser.getUser_id()) ? "Bought" : "Sold";
+            Button transBtn = new Button(String.format("%s: %s - COMPLETED", type, a.getItem_title()));
+            transBtn.setStyle("-fx-text-fill: white; -fx-background-color: #2c2c2c;");
+            transBtn.setPrefWidth(400);
+            transBtn.setAlignment(Pos.CENTER_LEFT);
+            transBtn.setOnAction(e -> {
+                selectedTransaction = null;
+                selectedArchived = a;
+                highlightSelection(transBtn);
+            });
+            transactionBox.getChildren().add(transBtn);
+        }
     }
 
     private void addTransactionButton(Transaction t, String type) {
@@ -110,6 +154,7 @@ public class Tran {
         transBtn.setPrefWidth(400);
         transBtn.setAlignment(Pos.CENTER_LEFT);
         transBtn.setOnAction(e -> {
+            selectedArchived = null;
             selectedTransaction = t;
             highlightSelection(transBtn);
         });
@@ -126,17 +171,27 @@ public class Tran {
     }
 
     private void showTransactionDetails() {
+        if (selectedArchived != null) {
+            showArchivedDetails(selectedArchived);
+            return;
+        }
         if (selectedTransaction == null) {
             showAlert("Error", "Please select a transaction first");
             return;
         }
 
-        Map<String, String> status = selectedTransaction.getTransactionStatus();
+        TransactionStatus status = selectedTransaction.getTransactionStatus();
+        long daysSince = TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis() - status.getTransaction_time());
         StringBuilder details = new StringBuilder();
-
-        for (Map.Entry<String, String> entry : status.entrySet()) {
-            details.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
-        }
+        details.append("Transaction ID: ").append(status.getTransaction_id()).append("\n");
+        details.append("Payment Status: ").append(status.getPayment_status().name()).append("\n");
+        details.append("Shipping Status: ").append(status.getShipping_status().name()).append("\n");
+        details.append("Payment Method: ").append(status.getPayment_method().name()).append("\n");
+        details.append("Reviews Completed: ").append(status.isReviews_completed() ? "Yes" : "No").append("\n");
+        details.append("Credits Used: ").append(status.getCredits_used()).append("\n");
+        details.append(String.format("Total Amount: Rs. %.2f", status.getTotal_amount())).append("\n");
+        details.append("Is Complete: ").append(status.isIs_complete() ? "Yes" : "No").append("\n");
+        details.append("Days Since Transaction: ").append(Math.max(0, daysSince)).append("\n");
 
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Transaction Details");
@@ -145,6 +200,25 @@ public class Tran {
         alert.showAndWait();
     }
 
+    private void showArchivedDetails(ArchivedTransaction a) {
+        long daysSince = TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis() - a.getTransaction_time());
+        StringBuilder details = new StringBuilder();
+        details.append("Transaction ID: ").append(a.getTransaction_id()).append("\n");
+        details.append("Payment Status: COMPLETED\n");
+        details.append("Shipping Status: DELIVERED\n");
+        details.append("Payment Method: ").append(a.getPayment_method().name()).append("\n");
+        details.append("Credits Used: ").append(a.getCredits_used()).append("\n");
+        details.append(String.format("Total Amount: Rs. %.2f", a.getTotal_amount())).append("\n");
+        details.append("Days Since Transaction: ").append(Math.max(0, daysSince)).append("\n");
+        details.append("Archived: Yes\n");
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Transaction Details");
+        alert.setHeaderText(a.getTransaction_id());
+        alert.setContentText(details.toString());
+        alert.showAndWait();
+    }
+
     private void showAlert(String title, String content) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
@@ -3,6 +3,8 @@ package com.studentexchange.gui;
 import com.studentexchange.Main;
 import com.studentexchange.enums.*;
 import com.studentexchange.models.*;
+import com.studentexchange.services.AsyncExchange;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -129,7 +131,7 @@ public class Uitems {
                     return;
                 }
 
-                Book book = main.getSystem().uploadBook(
+                main.getAsync().uploadBookAsync(
                         main.getCurrentUser(),
                         titleField.getText().trim(),
                         descArea.getText().trim(),
@@ -144,19 +146,23 @@ public class Uitems {
                         "Unknown Publisher",
                         100,
                         false
-                );
-
-                showAlert("Success", "Item uploaded successfully!");
-
-
-                categoryBox.setValue(null);
-                gradeBox.setValue(null);
-                titleField.clear();
-                subjectField.clear();
-                descArea.clear();
-                conditionBox.setValue(null);
-                marketPriceField.clear();
-                priceField.clear();
+                ).whenComplete((book, ex) -> Platform.runLater(() -> {
+                    if (ex != null) {
+                        showAlert("Error", "Upload failed: " + AsyncExchange.messageOf(ex));
+                        return;
+                    }
+                    showAlert("Success", "Item uploaded successfully!");
+
+
+                    categoryBox.setValue(null);
+                    gradeBox.setValue(null);
+                    titleField.clear();
+                    subjectField.clear();
+                    descArea.clear();
+                    conditionBox.setValue(null);
+                    marketPriceField.clear();
+                    priceField.clear();
+                }));
 
             } catch (NumberFormatException ex) {
                 showAlert("Error", "Please enter valid prices");
@@ -2,6 +2,8 @@ package com.studentexchange.gui;
 
 import com.studentexchange.Main;
 import com.studentexchange.models.User;
+import com.studentexchange.services.AsyncExchange;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -104,15 +106,14 @@ public class updateprof {
                 return;
             }
 
-            try {
-                user.updateProfile(name, phone, address);
-                user.setEmail(email);
-
-                showAlert("Success", "Profile updated successfully!");
-                main.showProfileScreen();
-            } catch (Exception ex) {
-                showAlert("Error", "Failed to update profile: " + ex.getMessage());
-            }
+            main.getAsync().updateProfileAsync(user, name, email, phone, address).whenComplete((done, ex) -> Platform.runLater(() -> {
+                if (ex != null) {
+                    showAlert("Error", "Failed to update profile: " + AsyncExchange.messageOf(ex));
+                } else {
+                    showAlert("Success", "Profile updated successfully!");
+                    main.showProfileScreen();
+                }
+            }));
         });
 
         HBox buttonBox = new HBox(confirmBtn);
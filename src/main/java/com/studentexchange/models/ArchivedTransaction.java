@@ -0,0 +1,167 @@
+package com.studentexchange.models;
+
+import com.studentexchange.enums.Category;
+import com.studentexchange.enums.PaymentMethod;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Flattened, read-only record of a delivered transaction and the item it sold,
+// as kept in the cold tier. Users are referenced by ID and name only, so an
+// archived record never pins live objects in memory.
+public final class ArchivedTransaction {
+    private final String transaction_id;
+    private final String item_id;
+    private final String item_type;
+    private final String item_title;
+    private final Category category;
+    private final String subject;
+    private final float price;
+    private final String buyer_id;
+    private final String buyer_name;
+    private final String seller_id;
+    private final String seller_name;
+    private final PaymentMethod payment_method;
+    private final int credits_used;
+    private final float total_amount;
+    private final long transaction_time;
+    private final long delivery_time;
+    private final long archived_time;
+
+    private ArchivedTransaction(String transaction_id, String item_id, String item_type, String item_title, Category category, String subject, float price, String buyer_id, String buyer_name, String seller_id, String seller_name, PaymentMethod payment_method, int credits_used, float total_amount, long transaction_time, long delivery_time, long archived_time) {
+        this.transaction_id = transaction_id;
+        this.item_id = item_id;
+        this.item_type = item_type;
+        this.item_title = item_title;
+        this.category = category;
+        this.subject = subject;
+        this.price = price;
+        this.buyer_id = buyer_id;
+        this.buyer_name = buyer_name;
+        this.seller_id = seller_id;
+        this.seller_name = seller_name;
+        this.payment_method = payment_method;
+        this.credits_used = credits_used;
+        this.total_amount = total_amount;
+        this.transaction_time = transaction_time;
+        this.delivery_time = delivery_time;
+        this.archived_time = archived_time;
+    }
+
+    public static ArchivedTransaction of(Transaction transaction, long archivedTime) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        ForSaleItem item = transaction.getItem();
+        TransactionStatus status = transaction.getTransactionStatus();
+        return new ArchivedTransaction(transaction.getTransaction_id(), item.getItem_id(), item.getClass().getSimpleName(),
+                item.getTitle(), item.getCategory(), item.getSubject(), item.getPrice(),
+                transaction.getBuyer().getUser_id(), transaction.getBuyer().getName(),
+                transaction.getSeller().getUser_id(), transaction.getSeller().getName(),
+                transaction.getPayment_method(), status.getCredits_used(), status.getTotal_amount(),
+                status.getTransaction_time(),
+                transaction.getDelivery_date() != null ? transaction.getDelivery_date().getTime() : 0,
+                archivedTime);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(transaction_id);
+        out.writeUTF(item_id);
+        out.writeUTF(item_type);
+        out.writeUTF(item_title);
+        out.writeByte(category.ordinal());
+        out.writeUTF(subject != null ? subject : "");
+        out.writeFloat(price);
+        out.writeUTF(buyer_id);
+        out.writeUTF(buyer_name);
+        out.writeUTF(seller_id);
+        out.writeUTF(seller_name);
+        out.writeByte(payment_method.ordinal());
+        out.writeInt(credits_used);
+        out.writeFloat(total_amount);
+        out.writeLong(transaction_time);
+        out.writeLong(delivery_time);
+        out.writeLong(archived_time);
+    }
+
+    public static ArchivedTransaction readFrom(DataInput in) throws IOException {
+        return new ArchivedTransaction(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                Category.values()[in.readByte()], in.readUTF(), in.readFloat(),
+                in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                PaymentMethod.values()[in.readByte()], in.readInt(), in.readFloat(),
+                in.readLong(), in.readLong(), in.readLong());
+    }
+
+    public String getTransaction_id() {
+        return transaction_id;
+    }
+
+    public String getItem_id() {
+        return item_id;
+    }
+
+    public String getItem_type() {
+        return item_type;
+    }
+
+    public String getItem_title() {
+        return item_title;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public float getPrice() {
+        return price;
+    }
+
+    public String getBuyer_id() {
+        return buyer_id;
+    }
+
+    public String getBuyer_name() {
+        return buyer_name;
+    }
+
+    public String getSeller_id() {
+        return seller_id;
+    }
+
+    public String getSeller_name() {
+        return seller_name;
+    }
+
+    public PaymentMethod getPayment_method() {
+        return payment_method;
+    }
+
+    public int getCredits_used() {
+        return credits_used;
+    }
+
+    public float getTotal_amount() {
+        return total_amount;
+    }
+
+    public long getTransaction_time() {
+        return transaction_time;
+    }
+
+    public long getDelivery_time() {
+        return delivery_time;
+    }
+
+    public long getArchived_time() {
+        return archived_time;
+    }
+
+    @Override
+    public String toString() {
+        return transaction_id + ": " + item_title + " sold by " + seller_name + " to " + buyer_name + " for Rs." + total_amount;
+    }
+}
@@ -83,34 +83,11 @@ public class Book extends ForSaleItem {
     }
 
     @Override
-    public boolean matchesSearch(String keyword) {
-        try {
-            boolean parentMatches = super.matchesSearch(keyword);
-            if (parentMatches) {
-                return true;
-            }
-            if (keyword == null || keyword.isEmpty()) {
-                return false;
-            }
-            String lowerKeyword = keyword.toLowerCase();
-            String author = getAuthor();
-            String publisher = getPublisher();
-            String edition = getEdition();
-            if (author != null && author.toLowerCase().contains(lowerKeyword)) {
-                return true;
-            }
-            if (publisher != null && publisher.toLowerCase().contains(lowerKeyword)) {
-                return true;
-            }
-            if (edition != null && edition.toLowerCase().contains(lowerKeyword)) {
-                return true;
-            }
-            return false;
-        } catch (IllegalStateException e) {
-            throw new IllegalStateException("Failed to search book: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Error while searching book: " + e.getMessage());
-        }
+    protected void appendSearchFields(StringBuilder builder) {
+        super.appendSearchFields(builder);
+        appendSearchField(builder, author);
+        appendSearchField(builder, publisher);
+        appendSearchField(builder, edition);
     }
 
     @Override
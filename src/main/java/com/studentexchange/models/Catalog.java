@@ -3,25 +3,179 @@ package com.studentexchange.models;
 import com.studentexchange.enums.Category;
 import com.studentexchange.enums.Condition;
 import com.studentexchange.enums.GradeLevel;
+import com.studentexchange.enums.ShardStrategy;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
+// Items are partitioned into independent shards, by category or by hashed item
+// ID. Queries fan out over the shards and merge the per-shard results back into
+// insertion order. When parallel scanning is on, large scans fan out on the
+// fork-join pool and large shards are themselves split into range tasks; what
+// counts as large is learned from measured scan times.
 public class Catalog {
-    private List<Item> items;
+    // Told about every item entering or leaving the catalog, however it got
+    // there, so derived structures such as search indexes stay in step
+    public interface ItemListener {
+        void itemsAdded(List<? extends Item> items);
+
+        void itemRemoved(Item item);
+
+        void itemChanged(Item item);
+
+        // Sold, or its sale cancelled
+        void availabilityChanged(Item item);
+    }
+
+    private CatalogShard[] shards;
+    private ShardStrategy shard_strategy;
+    private Map<String, Item> items_by_id;
     private Map<Category, Integer> categories;
-    private Date updated_date;
+    private volatile Date updated_date;
+    private final AtomicLong insertions = new AtomicLong();
+    private final ScanCostModel scan_costs = new ScanCostModel();
+    private volatile boolean parallel_scan = true;
+    // Bumped on every mutation so cached query results can detect staleness
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Category, AtomicLong> category_epochs = new EnumMap<>(Category.class);
+    private final List<ItemListener> item_listeners = new CopyOnWriteArrayList<>();
 
     public Catalog() {
+        this(ShardStrategy.CATEGORY, Category.values().length);
+    }
+
+    // Category sharding always uses one shard per category; shardCount only
+    // applies to hashed sharding
+    public Catalog(ShardStrategy strategy, int shardCount) {
         try {
-            this.items = new ArrayList<>();
+            if (strategy == null) {
+                throw new IllegalArgumentException("Shard strategy cannot be null");
+            }
+            if (strategy == ShardStrategy.ITEM_HASH && shardCount < 1) {
+                throw new IllegalArgumentException("Shard count must be at least 1");
+            }
+            this.shard_strategy = strategy;
+            this.shards = new CatalogShard[strategy == ShardStrategy.CATEGORY ? Category.values().length : shardCount];
+            for (int i = 0; i < shards.length; i++) {
+                shards[i] = new CatalogShard();
+            }
+            this.items_by_id = new ConcurrentHashMap<>();
             this.categories = new HashMap<>();
             this.updated_date = new Date();
+            for (Category category : Category.values()) {
+                category_epochs.put(category, new AtomicLong());
+            }
         } catch (Exception e) {
             throw new RuntimeException("Failed to create Catalog: " + e.getMessage());
         }
     }
 
+    // Every item, sold ones included; browsing should use getAvailableItems
     public List<Item> getItems() {
-        return new ArrayList<>(items);
+        return query(null, item -> true, "listing item", false);
+    }
+
+    // Live inventory in catalog order, read from the shards' live views
+    public List<Item> getAvailableItems() {
+        return query(null, item -> true, "listing item", true);
+    }
+
+    public int getAvailableCount() {
+        int count = 0;
+        for (CatalogShard shard : shards) {
+            count += shard.liveSize();
+        }
+        return count;
+    }
+
+    public int size() {
+        return items_by_id.size();
+    }
+
+    public ShardStrategy getShard_strategy() {
+        return shard_strategy;
+    }
+
+    public boolean isParallel_scan() {
+        return parallel_scan;
+    }
+
+    public void setParallel_scan(boolean parallel_scan) {
+        this.parallel_scan = parallel_scan;
+    }
+
+    // Catalog size from which a scan is currently expected to benefit from splitting
+    public int getScanCutoff() {
+        return scan_costs.sequentialCutoff();
+    }
+
+    public int[] getShardSizes() {
+        int[] sizes = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            sizes[i] = shards[i].size();
+        }
+        return sizes;
+    }
+
+    public void addItemListener(ItemListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        item_listeners.add(listener);
+    }
+
+    public void removeItemListener(ItemListener listener) {
+        item_listeners.remove(listener);
+    }
+
+    private void notifyAdded(List<? extends Item> items) {
+        for (ItemListener listener : item_listeners) {
+            try {
+                listener.itemsAdded(items);
+            } catch (Exception e) {
+                System.err.println("Error in catalog listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void notifyRemoved(Item item) {
+        for (ItemListener listener : item_listeners) {
+            try {
+                listener.itemRemoved(item);
+            } catch (Exception e) {
+                System.err.println("Error in catalog listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void notifyChanged(Item item) {
+        for (ItemListener listener : item_listeners) {
+            try {
+                listener.itemChanged(item);
+            } catch (Exception e) {
+                System.err.println("Error in catalog listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void notifyAvailabilityChanged(Item item) {
+        for (ItemListener listener : item_listeners) {
+            try {
+                listener.availabilityChanged(item);
+            } catch (Exception e) {
+                System.err.println("Error in catalog listener: " + e.getMessage());
+            }
+        }
+    }
+
+    public Item getItemById(String itemId) {
+        return itemId != null ? items_by_id.get(itemId) : null;
     }
 
     public List<Item> getItemsBySeller(User user) {
@@ -29,17 +183,7 @@ public class Catalog {
             if (user == null) {
                 throw new IllegalArgumentException("User cannot be null");
             }
-            List<Item> userItems = new ArrayList<>();
-            for (Item item : items) {
-                try {
-                    if (item.getUploader().equals(user)) {
-                        userItems.add(item);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error checking item uploader: " + e.getMessage());
-                }
-            }
-            return userItems;
+            return query(null, item -> item.getUploader().equals(user), "checking item uploader", false);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to get items by seller: " + e.getMessage());
         } catch (Exception e) {
@@ -53,20 +197,21 @@ public class Catalog {
                 throw new IllegalArgumentException("Item cannot be null");
             }
             String itemId = item.getItem_id();
-            for (Item existingItem : items) {
-                if (existingItem.getItem_id().equals(itemId)) {
-                    throw new IllegalArgumentException("Item with ID " + itemId + " already exists in catalog");
-                }
-            }
             if (item.getTitle() == null || item.getTitle().trim().isEmpty()) {
                 throw new IllegalArgumentException("Item title cannot be null or empty");
             }
             if (item.getUploader() == null) {
                 throw new IllegalArgumentException("Item uploader cannot be null");
             }
-            this.items.add(item);
+            if (items_by_id.putIfAbsent(itemId, item) != null) {
+                throw new IllegalArgumentException("Item with ID " + itemId + " already exists in catalog");
+            }
+            item.attachTo(this);
+            shardFor(item).add(insertions.incrementAndGet(), item);
             updateCategories();
             this.updated_date = new Date();
+            markChanged(item);
+            notifyAdded(List.of(item));
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to add item: " + e.getMessage());
         } catch (Exception e) {
@@ -74,31 +219,143 @@ public class Catalog {
         }
     }
 
-    public List<Item> search(String keyword) {
+    // Batch form of addItem for bulk imports: the batch is validated up front,
+    // each shard takes its write lock once, and category counts and versions
+    // are refreshed once for the whole batch instead of per item
+    public void addItems(List<? extends Item> items) {
         try {
-            if (keyword == null || keyword.trim().isEmpty()) {
-                return new ArrayList<>();
+            if (items == null) {
+                throw new IllegalArgumentException("Items cannot be null");
             }
-            String trimmedKeyword = keyword.trim().toLowerCase();
-            List<Item> results = new ArrayList<>();
+            Set<String> batchIds = new HashSet<>();
             for (Item item : items) {
-                try {
-                    if (item.matchesSearch(trimmedKeyword)) {
-                        results.add(item);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error searching item: " + e.getMessage());
+                if (item == null) {
+                    throw new IllegalArgumentException("Item cannot be null");
+                }
+                if (item.getTitle() == null || item.getTitle().trim().isEmpty()) {
+                    throw new IllegalArgumentException("Item title cannot be null or empty");
+                }
+                if (item.getUploader() == null) {
+                    throw new IllegalArgumentException("Item uploader cannot be null");
                 }
+                if (!batchIds.add(item.getItem_id()) || items_by_id.containsKey(item.getItem_id())) {
+                    throw new IllegalArgumentException("Item with ID " + item.getItem_id() + " already exists in catalog");
+                }
+            }
+            if (items.isEmpty()) {
+                return;
+            }
+            long base = insertions.getAndAdd(items.size());
+            Map<CatalogShard, List<Item>> byShard = new IdentityHashMap<>();
+            Map<CatalogShard, long[]> sequences = new IdentityHashMap<>();
+            Map<CatalogShard, Integer> fill = new IdentityHashMap<>();
+            for (Item item : items) {
+                byShard.computeIfAbsent(shardFor(item), s -> new ArrayList<>()).add(item);
+            }
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                CatalogShard shard = shardFor(item);
+                long[] shardSequences = sequences.computeIfAbsent(shard, s -> new long[byShard.get(s).size()]);
+                shardSequences[fill.merge(shard, 1, Integer::sum) - 1] = base + i + 1;
+                items_by_id.put(item.getItem_id(), item);
+                item.attachTo(this);
             }
-            return results;
+            for (Map.Entry<CatalogShard, List<Item>> entry : byShard.entrySet()) {
+                entry.getKey().addAll(sequences.get(entry.getKey()), entry.getValue());
+            }
+            updateCategories();
+            this.updated_date = new Date();
+            EnumSet<Category> touched = EnumSet.noneOf(Category.class);
+            for (Item item : items) {
+                if (touched.add(item.getCategory())) {
+                    markChanged(item);
+                }
+            }
+            notifyAdded(Collections.unmodifiableList(items));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to add items: " + e.getMessage());
+        } catch (Exception e) {
+            throw new RuntimeException("Unexpected error adding items: " + e.getMessage());
+        }
+    }
+
+    // Drops an item from the catalog, for example when it moves to the archive
+    public boolean removeItem(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        if (!items_by_id.remove(item.getItem_id(), item)) {
+            return false;
+        }
+        shardFor(item).remove(item);
+        if (item.getCatalog() == this) {
+            item.attachTo(null);
+        }
+        updateCategories();
+        markChanged(item);
+        notifyRemoved(item);
+        return true;
+    }
+
+    // Called by an item when it is sold or its sale is cancelled; O(1) per shard
+    void availabilityChanged(Item item) {
+        if (!items_by_id.containsKey(item.getItem_id())) {
+            return;
+        }
+        shardFor(item).updateAvailability(item);
+        markChanged(item);
+        notifyAvailabilityChanged(item);
+    }
+
+    // Called by an item after one of its setters ran. Under category sharding a
+    // category change moves the item to its new shard, where it is re-listed
+    // with a fresh sequence and so sorts as the newest item.
+    void itemChanged(Item item, Category previousCategory) {
+        if (items_by_id.get(item.getItem_id()) != item) {
+            return;
+        }
+        Category current = item.getCategory();
+        if (previousCategory != null && previousCategory != current) {
+            CatalogShard from = shardFor(item, previousCategory);
+            CatalogShard to = shardFor(item, current);
+            if (from != to) {
+                from.remove(item, previousCategory);
+                to.add(insertions.incrementAndGet(), item);
+            } else {
+                from.recategorize(previousCategory, current);
+            }
+            updateCategories();
+            category_epochs.get(previousCategory).incrementAndGet();
+        }
+        this.updated_date = new Date();
+        markChanged(item);
+        notifyChanged(item);
+    }
+
+    // Searches live inventory only
+    public List<Item> search(String keyword) {
+        return search(keyword, false);
+    }
+
+    public List<Item> search(String keyword, boolean includeSold) {
+        try {
+            if (keyword == null || keyword.trim().isEmpty()) {
+                return new ArrayList<>();
+            }
+            String normalizedKeyword = Item.normalizeSearchText(keyword);
+            return query(null, item -> item.matchesNormalized(normalizedKeyword), "searching item", !includeSold);
         } catch (Exception e) {
             throw new RuntimeException("Failed to search catalog: " + e.getMessage());
         }
     }
 
+    // Filters live inventory only
     public List<Item> filterItems(Category category, GradeLevel grade, Float minPrice, Float maxPrice, String subject, Condition condition) {
+        return filterItems(category, grade, minPrice, maxPrice, subject, condition, false);
+    }
+
+    public List<Item> filterItems(Category category, GradeLevel grade, Float minPrice, Float maxPrice, String subject, Condition condition, boolean includeSold) {
         try {
-            List<Item> filtered = new ArrayList<>();
             if (minPrice != null && minPrice < 0) {
                 throw new IllegalArgumentException("Minimum price cannot be negative");
             }
@@ -108,45 +365,8 @@ public class Catalog {
             if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
                 throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
             }
-            for (Item item : items) {
-                try {
-                    boolean matches = true;
-                    if (category != null && item.getCategory() != category) {
-                        matches = false;
-                    }
-                    if (grade != null && item.getGrade() != grade) {
-                        matches = false;
-                    }
-                    if (subject != null && !subject.trim().isEmpty()) {
-                        String itemSubject = item.getSubject();
-                        if (itemSubject == null || !itemSubject.toLowerCase().contains(subject.toLowerCase().trim())) {
-                            matches = false;
-                        }
-                    }
-                    if (item instanceof ForSaleItem) {
-                        ForSaleItem forSale = (ForSaleItem) item;
-                        if (minPrice != null && forSale.getPrice() < minPrice) {
-                            matches = false;
-                        }
-                        if (maxPrice != null && forSale.getPrice() > maxPrice) {
-                            matches = false;
-                        }
-                        if (condition != null && forSale.getCondition() != condition) {
-                            matches = false;
-                        }
-                    } else {
-                        if (minPrice != null || maxPrice != null || condition != null) {
-                            matches = false;
-                        }
-                    }
-                    if (matches) {
-                        filtered.add(item);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error filtering item: " + e.getMessage());
-                }
-            }
-            return filtered;
+            String normalizedSubject = normalizeSubject(subject);
+            return query(category, item -> matchesFilters(item, category, grade, minPrice, maxPrice, normalizedSubject, condition), "filtering item", !includeSold);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to filter items: " + e.getMessage());
         } catch (Exception e) {
@@ -154,17 +374,208 @@ public class Catalog {
         }
     }
 
+    // Counts facets over the live items matching the keyword (if any) and filters
+    // in a single pass, without collecting the matching items.
+    public FacetCounts computeFacets(String keyword, Category category, GradeLevel grade, Float minPrice, Float maxPrice, String subject, Condition condition) {
+        try {
+            if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+                throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+            }
+            String normalizedKeyword = keyword != null && !keyword.trim().isEmpty() ? Item.normalizeSearchText(keyword) : null;
+            String normalizedSubject = normalizeSubject(subject);
+            Predicate<Item> predicate = item -> (normalizedKeyword == null || item.matchesNormalized(normalizedKeyword))
+                    && matchesFilters(item, category, grade, minPrice, maxPrice, normalizedSubject, condition);
+            return fanOut(targetShards(category), shard -> shard.countFacets(predicate, true), (left, right) -> {
+                left.merge(right);
+                return left;
+            });
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to compute facets: " + e.getMessage());
+        }
+    }
+
+    private CatalogShard shardFor(Item item) {
+        return shardFor(item, item.getCategory());
+    }
+
+    private CatalogShard shardFor(Item item, Category category) {
+        if (shard_strategy == ShardStrategy.CATEGORY) {
+            return shards[category.ordinal()];
+        }
+        int hash = item.getItem_id().hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    private List<CatalogShard> targetShards(Category category) {
+        List<CatalogShard> targets = new ArrayList<>(shards.length);
+        for (CatalogShard shard : shards) {
+            if (shard.mayContain(category)) {
+                targets.add(shard);
+            }
+        }
+        return targets;
+    }
+
+    // Full scan of live inventory for predicates no index can answer, such as
+    // description substrings or Notes chapter matches. Results come back in
+    // catalog order.
+    public List<Item> scan(Predicate<Item> predicate) {
+        return scan(predicate, false);
+    }
+
+    public List<Item> scan(Predicate<Item> predicate, boolean includeSold) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Predicate cannot be null");
+        }
+        return query(null, predicate, "scanning item", !includeSold);
+    }
+
+    public List<Item> searchDescriptions(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        String needle = text.toLowerCase().trim();
+        return scan(item -> item.getDescription() != null && item.getDescription().toLowerCase().contains(needle));
+    }
+
+    public List<Item> findNotesByChapter(String chapter) {
+        if (chapter == null || chapter.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        String needle = chapter.toLowerCase().trim();
+        return scan(item -> {
+            if (!(item instanceof Notes)) {
+                return false;
+            }
+            for (String name : ((Notes) item).getChapters()) {
+                if (name != null && name.toLowerCase().contains(needle)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private List<Item> query(Category category, Predicate<Item> predicate, String context, boolean liveOnly) {
+        ScanCostModel costs = parallel_scan ? scan_costs : null;
+        List<CatalogShard.Slot> slots = fanOut(targetShards(category), shard -> shard.collect(predicate, context, costs, liveOnly), Catalog::mergeBySequence);
+        List<Item> results = new ArrayList<>(slots.size());
+        for (CatalogShard.Slot slot : slots) {
+            results.add(slot.item);
+        }
+        return results;
+    }
+
+    private <R> R fanOut(List<CatalogShard> targets, Function<CatalogShard, R> leaf, BinaryOperator<R> combiner) {
+        if (targets.isEmpty()) {
+            return leaf.apply(new CatalogShard());
+        }
+        boolean parallel = parallel_scan && targets.size() > 1 && scan_costs.shouldSplit(size());
+        ShardTask<R> task = new ShardTask<>(targets, 0, targets.size(), leaf, combiner, parallel);
+        return parallel ? ForkJoinPool.commonPool().invoke(task) : task.invoke();
+    }
+
+    // Splits the shard range in halves; each half's results are combined as the
+    // halves join, so merging proceeds in parallel up the tree.
+    // This and CatalogShard.ScanTask are throwaway fork-join tasks that live only
+    // for one invoke on the pool. ForkJoinTask happens to be Serializable, but
+    // they are never serialized, so the serial lint is suppressed on both.
+    @SuppressWarnings("serial")
+    private static class ShardTask<R> extends RecursiveTask<R> {
+        private final List<CatalogShard> targets;
+        private final int from;
+        private final int to;
+        private final Function<CatalogShard, R> leaf;
+        private final BinaryOperator<R> combiner;
+        private final boolean parallel;
+
+        ShardTask(List<CatalogShard> targets, int from, int to, Function<CatalogShard, R> leaf, BinaryOperator<R> combiner, boolean parallel) {
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.combiner = combiner;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from == 1) {
+                return leaf.apply(targets.get(from));
+            }
+            int mid = (from + to) >>> 1;
+            ShardTask<R> left = new ShardTask<>(targets, from, mid, leaf, combiner, parallel);
+            ShardTask<R> right = new ShardTask<>(targets, mid, to, leaf, combiner, parallel);
+            if (!parallel) {
+                return combiner.apply(left.compute(), right.compute());
+            }
+            left.fork();
+            R rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+
+    private static List<CatalogShard.Slot> mergeBySequence(List<CatalogShard.Slot> left, List<CatalogShard.Slot> right) {
+        List<CatalogShard.Slot> merged = new ArrayList<>(left.size() + right.size());
+        int i = 0;
+        int j = 0;
+        while (i < left.size() && j < right.size()) {
+            if (left.get(i).sequence <= right.get(j).sequence) {
+                merged.add(left.get(i++));
+            } else {
+                merged.add(right.get(j++));
+            }
+        }
+        while (i < left.size()) {
+            merged.add(left.get(i++));
+        }
+        while (j < right.size()) {
+            merged.add(right.get(j++));
+        }
+        return merged;
+    }
+
+    // Subject filters match case-insensitively on the trimmed subject; null means no filter
+    public static String normalizeSubject(String subject) {
+        return subject != null && !subject.trim().isEmpty() ? subject.toLowerCase().trim() : null;
+    }
+
+    private boolean matchesFilters(Item item, Category category, GradeLevel grade, Float minPrice, Float maxPrice, String normalizedSubject, Condition condition) {
+        if (category != null && item.getCategory() != category) {
+            return false;
+        }
+        if (grade != null && item.getGrade() != grade) {
+            return false;
+        }
+        if (normalizedSubject != null) {
+            String itemSubject = item.getSubject();
+            if (itemSubject == null || !itemSubject.toLowerCase().contains(normalizedSubject)) {
+                return false;
+            }
+        }
+        if (item instanceof ForSaleItem) {
+            ForSaleItem forSale = (ForSaleItem) item;
+            if (minPrice != null && forSale.getPrice() < minPrice) {
+                return false;
+            }
+            if (maxPrice != null && forSale.getPrice() > maxPrice) {
+                return false;
+            }
+            if (condition != null && forSale.getCondition() != condition) {
+                return false;
+            }
+            return true;
+        }
+        return minPrice == null && maxPrice == null && condition == null;
+    }
+
+    // Rebuilt from the shards' own counts rather than by walking every item
     public void updateCategories() {
         try {
-            categories.clear();
-            for (Item item : items) {
-                try {
-                    Category cat = item.getCategory();
-                    if (cat != null) {
-                        categories.put(cat, categories.getOrDefault(cat, 0) + 1);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error updating category for item: " + e.getMessage());
+            synchronized (categories) {
+                categories.clear();
+                for (CatalogShard shard : shards) {
+                    shard.getCategoryCounts().forEach((cat, count) -> categories.merge(cat, count, Integer::sum));
                 }
             }
             this.updated_date = new Date();
@@ -173,6 +584,33 @@ public class Catalog {
         }
     }
 
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getCategoryEpoch(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category cannot be null");
+        }
+        return category_epochs.get(category).get();
+    }
+
+    // Records that an item was added or changed state (for example sold)
+    public void markChanged(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        category_epochs.get(item.getCategory()).incrementAndGet();
+        version.incrementAndGet();
+    }
+
+    // Bumps only the global version, for changes that can reorder ranked
+    // results without changing which items match a filter, such as a seller's
+    // rating or rolled-up view counts
+    public void markRankingChanged() {
+        version.incrementAndGet();
+    }
+
     public Date getUpdated_date() {
         if (updated_date == null) {
             throw new IllegalStateException("Updated date is not set");
@@ -0,0 +1,305 @@
+package com.studentexchange.models;
+
+import com.studentexchange.enums.Category;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// One partition of the catalog. Items keep the global insertion sequence they
+// were given by Catalog so results from several shards can be merged back into
+// catalog order. Each shard has its own lock, so writers to one shard never
+// block scans of another.
+//
+// Alongside the full history the shard keeps a live view of available items:
+// a bitmap over shard-local IDs, so a sale or cancelled sale costs O(1) and
+// live scans walk only the set bits, in insertion order, never touching sold
+// items. The full history is by_local itself: a removed item leaves a null
+// there, so removal is O(1) too and full scans skip the gaps.
+class CatalogShard {
+    static final class Slot {
+        final long sequence;
+        final Item item;
+
+        Slot(long sequence, Item item) {
+            this.sequence = sequence;
+            this.item = item;
+        }
+    }
+
+    private final Map<Category, Integer> category_counts = new EnumMap<>(Category.class);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Local IDs are handed out in insertion order and never reused
+    private final Map<String, Integer> local_ids = new HashMap<>();
+    private Slot[] by_local = new Slot[16];
+    private int next_local;
+    private int size;
+    private final BitSet available = new BitSet();
+    private int live_size;
+
+    void add(long sequence, Item item) {
+        lock.writeLock().lock();
+        try {
+            insert(sequence, item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Bulk insert under a single write lock; sequences[i] belongs to items.get(i)
+    void addAll(long[] sequences, List<Item> items) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                insert(sequences[i], items.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(long sequence, Item item) {
+        int localId = next_local++;
+        Slot slot = new Slot(sequence, item);
+        if (localId == by_local.length) {
+            by_local = Arrays.copyOf(by_local, localId * 2);
+        }
+        by_local[localId] = slot;
+        local_ids.put(item.getItem_id(), localId);
+        size++;
+        category_counts.merge(item.getCategory(), 1, Integer::sum);
+        if (item.isAvailable()) {
+            addLive(localId);
+        }
+    }
+
+    boolean remove(Item item) {
+        return remove(item, item.getCategory());
+    }
+
+    // category is the one the item was counted under, which differs from its
+    // current category while the item is being moved after an edit
+    boolean remove(Item item, Category category) {
+        lock.writeLock().lock();
+        try {
+            Integer localId = local_ids.remove(item.getItem_id());
+            if (localId == null) {
+                return false;
+            }
+            removeLive(localId);
+            by_local[localId] = null;
+            size--;
+            category_counts.merge(category, -1, Integer::sum);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void recategorize(Category previous, Category current) {
+        lock.writeLock().lock();
+        try {
+            category_counts.merge(previous, -1, Integer::sum);
+            category_counts.merge(current, 1, Integer::sum);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Brings the live view in line with the item's current availability
+    void updateAvailability(Item item) {
+        lock.writeLock().lock();
+        try {
+            Integer localId = local_ids.get(item.getItem_id());
+            if (localId == null) {
+                return;
+            }
+            if (item.isAvailable()) {
+                addLive(localId);
+            } else {
+                removeLive(localId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLive(int localId) {
+        if (!available.get(localId)) {
+            available.set(localId);
+            live_size++;
+        }
+    }
+
+    private void removeLive(int localId) {
+        if (available.get(localId)) {
+            available.clear(localId);
+            live_size--;
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int liveSize() {
+        lock.readLock().lock();
+        try {
+            return live_size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lets a category-filtered query skip shards that hold none of that category
+    boolean mayContain(Category category) {
+        if (category == null) {
+            return true;
+        }
+        lock.readLock().lock();
+        try {
+            return category_counts.getOrDefault(category, 0) > 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Map<Category, Integer> getCategoryCounts() {
+        lock.readLock().lock();
+        try {
+            return new EnumMap<>(category_counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Matching slots in insertion order, from the live view or the full history.
+    // An item that throws is logged and skipped. With a cost model, a large
+    // shard is scanned as fork-join range tasks, each filling its own buffer;
+    // buffers are concatenated in range order.
+    List<Slot> collect(Predicate<Item> predicate, String context, ScanCostModel costs, boolean liveOnly) {
+        lock.readLock().lock();
+        try {
+            int size = liveOnly ? live_size : this.size;
+            int end = next_local;
+            if (costs != null && costs.shouldSplit(size)) {
+                // The read lock held here keeps writers out while workers read slots
+                return ForkJoinPool.commonPool().invoke(new ScanTask(0, end, costs.leafSize(end), predicate, context, costs, liveOnly));
+            }
+            return scanRange(0, end, predicate, context, costs, liveOnly);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Live ranges are over local IDs and visit only the bits set in the bitmap.
+    // The cost model is fed the number of items actually tested, not the width
+    // of the range, which may be mostly sold or removed slots.
+    private List<Slot> scanRange(int from, int to, Predicate<Item> predicate, String context, ScanCostModel costs, boolean liveOnly) {
+        long start = System.nanoTime();
+        List<Slot> matches = new ArrayList<>();
+        int tested = 0;
+        if (liveOnly) {
+            for (int id = available.nextSetBit(from); id >= 0 && id < to; id = available.nextSetBit(id + 1)) {
+                test(by_local[id], predicate, context, matches);
+                tested++;
+            }
+        } else {
+            for (int id = from; id < to; id++) {
+                if (by_local[id] != null) {
+                    test(by_local[id], predicate, context, matches);
+                    tested++;
+                }
+            }
+        }
+        if (costs != null) {
+            costs.record(tested, System.nanoTime() - start);
+        }
+        return matches;
+    }
+
+    private static void test(Slot slot, Predicate<Item> predicate, String context, List<Slot> matches) {
+        try {
+            if (predicate.test(slot.item)) {
+                matches.add(slot);
+            }
+        } catch (Exception e) {
+            System.err.println("Error " + context + ": " + e.getMessage());
+        }
+    }
+
+    // See Catalog.ShardTask
+    @SuppressWarnings("serial")
+    private class ScanTask extends RecursiveTask<List<Slot>> {
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Predicate<Item> predicate;
+        private final String context;
+        private final ScanCostModel costs;
+        private final boolean liveOnly;
+
+        ScanTask(int from, int to, int leafSize, Predicate<Item> predicate, String context, ScanCostModel costs, boolean liveOnly) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.predicate = predicate;
+            this.context = context;
+            this.costs = costs;
+            this.liveOnly = liveOnly;
+        }
+
+        @Override
+        protected List<Slot> compute() {
+            if (to - from <= leafSize) {
+                return scanRange(from, to, predicate, context, costs, liveOnly);
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(from, mid, leafSize, predicate, context, costs, liveOnly);
+            ScanTask right = new ScanTask(mid, to, leafSize, predicate, context, costs, liveOnly);
+            left.fork();
+            List<Slot> rightMatches = right.compute();
+            List<Slot> leftMatches = left.join();
+            leftMatches.addAll(rightMatches);
+            return leftMatches;
+        }
+    }
+
+    FacetCounts countFacets(Predicate<Item> predicate, boolean liveOnly) {
+        lock.readLock().lock();
+        try {
+            FacetCounts facets = new FacetCounts();
+            if (liveOnly) {
+                for (int id = available.nextSetBit(0); id >= 0; id = available.nextSetBit(id + 1)) {
+                    count(by_local[id].item, predicate, facets);
+                }
+            } else {
+                for (int id = 0; id < next_local; id++) {
+                    if (by_local[id] != null) {
+                        count(by_local[id].item, predicate, facets);
+                    }
+                }
+            }
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void count(Item item, Predicate<Item> predicate, FacetCounts facets) {
+        try {
+            if (predicate.test(item)) {
+                facets.add(item);
+            }
+        } catch (Exception e) {
+            System.err.println("Error counting facets for item: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.studentexchange.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-user credit balance updated with compare-and-set, so concurrent awards
+// and spends never lose an update or overdraw. Every change is appended to the
+// entry history; the balance is a cache of the sum of those entries.
+public class CreditAccount {
+    private static final AtomicLong entry_sequence = new AtomicLong();
+
+    private final String user_id;
+    private final AtomicInteger balance;
+    private final ConcurrentLinkedQueue<CreditEntry> entries;
+
+    public CreditAccount(String user_id) {
+        if (user_id == null || user_id.isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        this.user_id = user_id;
+        this.balance = new AtomicInteger();
+        this.entries = new ConcurrentLinkedQueue<>();
+    }
+
+    public int getBalance() {
+        return balance.get();
+    }
+
+    public CreditEntry credit(int points, String reason) {
+        if (points <= 0) {
+            throw new IllegalArgumentException("Credit points to add must be positive");
+        }
+        while (true) {
+            int current = balance.get();
+            int updated;
+            try {
+                updated = Math.addExact(current, points);
+            } catch (ArithmeticException e) {
+                throw new ArithmeticException("Credit points overflow occurred when adding " + points + " points");
+            }
+            if (balance.compareAndSet(current, updated)) {
+                return append(points, updated, reason);
+            }
+        }
+    }
+
+    // Returns null instead of going negative when the balance is too low.
+    public CreditEntry tryDebit(int points, String reason) {
+        if (points <= 0) {
+            throw new IllegalArgumentException("Credit points to use must be positive");
+        }
+        while (true) {
+            int current = balance.get();
+            if (current < points) {
+                return null;
+            }
+            int updated = current - points;
+            if (balance.compareAndSet(current, updated)) {
+                return append(-points, updated, reason);
+            }
+        }
+    }
+
+    public List<CreditEntry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    // Recomputes the balance from the history. Only exact once in-flight
+    // updates have finished appending.
+    public int sumEntries() {
+        int sum = 0;
+        for (CreditEntry entry : entries) {
+            sum += entry.getDelta();
+        }
+        return sum;
+    }
+
+    private CreditEntry append(int delta, int balanceAfter, String reason) {
+        CreditEntry entry = new CreditEntry(entry_sequence.incrementAndGet(), user_id, delta, balanceAfter,
+                reason != null ? reason : "", System.currentTimeMillis());
+        entries.add(entry);
+        return entry;
+    }
+}
@@ -0,0 +1,53 @@
+package com.studentexchange.models;
+
+import java.util.Date;
+
+// One immutable line of a user's credit history. Positive deltas are awards
+// and refunds, negative deltas are spends.
+public final class CreditEntry {
+    private final long entry_id;
+    private final String user_id;
+    private final int delta;
+    private final int balance_after;
+    private final String reason;
+    private final long timestamp;
+
+    CreditEntry(long entry_id, String user_id, int delta, int balance_after, String reason, long timestamp) {
+        this.entry_id = entry_id;
+        this.user_id = user_id;
+        this.delta = delta;
+        this.balance_after = balance_after;
+        this.reason = reason;
+        this.timestamp = timestamp;
+    }
+
+    public long getEntry_id() {
+        return entry_id;
+    }
+
+    public String getUser_id() {
+        return user_id;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public int getBalance_after() {
+        return balance_after;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Date getTimestamp() {
+        return new Date(timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return "Entry " + entry_id + " | " + user_id + " | " + (delta > 0 ? "+" : "") + delta +
+                " | Balance: " + balance_after + " | " + reason;
+    }
+}
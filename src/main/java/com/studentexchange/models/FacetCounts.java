@@ -0,0 +1,111 @@
+package com.studentexchange.models;
+
+import com.studentexchange.enums.Category;
+import com.studentexchange.enums.Condition;
+import com.studentexchange.enums.GradeLevel;
+import java.util.*;
+
+// Per-facet counts over a result set, filled one item at a time by whoever
+// walks the results, so the result list itself never has to be built.
+public class FacetCounts {
+    private static final float[] PRICE_BUCKET_BOUNDS = {0, 250, 500, 1000, 2500, 5000};
+
+    private int total;
+    private final Map<Category, Integer> categories = new EnumMap<>(Category.class);
+    private final Map<GradeLevel, Integer> grades = new EnumMap<>(GradeLevel.class);
+    private final Map<Condition, Integer> conditions = new EnumMap<>(Condition.class);
+    private final int[] price_buckets = new int[PRICE_BUCKET_BOUNDS.length];
+    private final Map<String, Integer> subjects = new HashMap<>();
+
+    public void add(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        total++;
+        categories.merge(item.getCategory(), 1, Integer::sum);
+        grades.merge(item.getGrade(), 1, Integer::sum);
+        subjects.merge(item.getSubject(), 1, Integer::sum);
+        if (item instanceof ForSaleItem) {
+            ForSaleItem forSale = (ForSaleItem) item;
+            conditions.merge(forSale.getCondition(), 1, Integer::sum);
+            price_buckets[priceBucketOf(forSale.getPrice())]++;
+        }
+    }
+
+    // Folds counts gathered over a disjoint set of items into this one
+    public void merge(FacetCounts other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Facet counts cannot be null");
+        }
+        total += other.total;
+        other.categories.forEach((key, count) -> categories.merge(key, count, Integer::sum));
+        other.grades.forEach((key, count) -> grades.merge(key, count, Integer::sum));
+        other.conditions.forEach((key, count) -> conditions.merge(key, count, Integer::sum));
+        other.subjects.forEach((key, count) -> subjects.merge(key, count, Integer::sum));
+        for (int i = 0; i < price_buckets.length; i++) {
+            price_buckets[i] += other.price_buckets[i];
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<Category, Integer> getCategories() {
+        return new EnumMap<>(categories);
+    }
+
+    public Map<GradeLevel, Integer> getGrades() {
+        return new EnumMap<>(grades);
+    }
+
+    public Map<Condition, Integer> getConditions() {
+        return new EnumMap<>(conditions);
+    }
+
+    // Bucket labels in ascending price order, mapped to their counts
+    public Map<String, Integer> getPriceBuckets() {
+        Map<String, Integer> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < PRICE_BUCKET_BOUNDS.length; i++) {
+            buckets.put(getPriceBucketLabel(i), price_buckets[i]);
+        }
+        return buckets;
+    }
+
+    // Subjects ordered by count, most common first
+    public List<Map.Entry<String, Integer>> getTopSubjects(int limit) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(subjects.entrySet());
+        entries.sort((a, b) -> a.getValue().equals(b.getValue()) ? a.getKey().compareTo(b.getKey()) : b.getValue() - a.getValue());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, Math.max(0, limit))) : entries;
+    }
+
+    public static String getPriceBucketLabel(int bucket) {
+        if (bucket < 0 || bucket >= PRICE_BUCKET_BOUNDS.length) {
+            throw new IllegalArgumentException("Invalid price bucket: " + bucket);
+        }
+        if (bucket == PRICE_BUCKET_BOUNDS.length - 1) {
+            return "Rs. " + (int) PRICE_BUCKET_BOUNDS[bucket] + "+";
+        }
+        return "Rs. " + (int) PRICE_BUCKET_BOUNDS[bucket] + "-" + ((int) PRICE_BUCKET_BOUNDS[bucket + 1] - 1);
+    }
+
+    private static int priceBucketOf(float price) {
+        int bucket = 0;
+        while (bucket + 1 < PRICE_BUCKET_BOUNDS.length && price >= PRICE_BUCKET_BOUNDS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Category, Integer> entry : categories.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(" · ");
+            }
+            builder.append(entry.getKey()).append(String.format(" (%,d)", entry.getValue()));
+        }
+        return builder.toString();
+    }
+}
@@ -62,8 +62,20 @@ public class ForSaleItem extends Item {
         return is_sold;
     }
 
+    public User getBuyer() {
+        return buyer;
+    }
+
+    public Date getSale_date() {
+        return sale_date != null ? new Date(sale_date.getTime()) : null;
+    }
+
     public void setIs_sold(boolean is_sold) {
+        boolean changed = this.is_sold != is_sold;
         this.is_sold = is_sold;
+        if (changed) {
+            notifyAvailabilityChanged();
+        }
     }
 
     @Override
@@ -102,29 +114,6 @@ public class ForSaleItem extends Item {
         }
     }
 
-    @Override
-    public boolean matchesSearch(String keyword) {
-        try {
-            if (keyword == null || keyword.isEmpty()) {
-                return false;
-            }
-            String title = getTitle();
-            String description = getDescription();
-            String subject = getSubject();
-            if (title == null || description == null || subject == null) {
-                return false;
-            }
-            String lowerKeyword = keyword.toLowerCase();
-            return title.toLowerCase().contains(lowerKeyword) ||
-                    description.toLowerCase().contains(lowerKeyword) ||
-                    subject.toLowerCase().contains(lowerKeyword);
-        } catch (NullPointerException e) {
-            throw new NullPointerException("Null reference encountered while matching search");
-        } catch (Exception e) {
-            throw new RuntimeException("Error while matching search: " + e.getMessage());
-        }
-    }
-
     public void markAsSold(User buyer, Date saleDate) {
         try {
             if (buyer == null) {
@@ -145,6 +134,7 @@ public class ForSaleItem extends Item {
             this.is_sold = true;
             this.buyer = buyer;
             this.sale_date = new Date(saleDate.getTime());
+            notifyAvailabilityChanged();
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to mark item as sold: " + e.getMessage());
         } catch (IllegalStateException e) {
@@ -152,6 +142,21 @@ public class ForSaleItem extends Item {
         }
     }
 
+    // Undoes markAsSold when a purchase is rolled back before payment completes
+    public void cancelSale() {
+        try {
+            if (!is_sold) {
+                throw new IllegalStateException("Item is not sold");
+            }
+            this.is_sold = false;
+            this.buyer = null;
+            this.sale_date = null;
+            notifyAvailabilityChanged();
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Failed to cancel sale: " + e.getMessage());
+        }
+    }
+
     public String getConditionDescription() {
         try {
             Condition currentCondition = getCondition();
@@ -2,6 +2,7 @@ package com.studentexchange.models;
 
 import com.studentexchange.enums.Category;
 import com.studentexchange.enums.GradeLevel;
+import java.util.concurrent.atomic.LongAdder;
 
 public class FreeResource extends Item {
     private String file_url;
@@ -15,7 +16,7 @@ public class FreeResource extends Item {
     private boolean is_official;
     private float file_size;
     private String file_format;
-    private int download_count;
+    private final LongAdder download_count = new LongAdder();
 
     public FreeResource(String title, User uploader, String description, Category category, GradeLevel grade, String subject, String file_url, boolean is_university_paper, String university, String course_code, int year, String semester, String exam_type, boolean has_solutions, boolean is_official, float file_size, String file_format) {
         super(title, uploader, description, category, grade, subject);
@@ -65,7 +66,6 @@ public class FreeResource extends Item {
             this.is_official = is_official;
             this.file_size = file_size;
             this.file_format = file_format.trim();
-            this.download_count = 0;
             // Additional validation
             if (Float.isNaN(this.file_size) || Float.isInfinite(this.file_size)) {
                 throw new IllegalArgumentException("File size is not a valid number");
@@ -159,10 +159,11 @@ public class FreeResource extends Item {
     }
 
     public int getDownload_count() {
-        if (download_count < 0) {
-            throw new IllegalStateException("Download count cannot be negative");
-        }
-        return download_count;
+        return (int) Math.min(download_count.sum(), Integer.MAX_VALUE);
+    }
+
+    public long getTotal_downloads() {
+        return download_count.sum();
     }
 
     @Override
@@ -195,53 +196,25 @@ public class FreeResource extends Item {
     }
 
     @Override
-    public boolean matchesSearch(String keyword) {
-        try {
-            if (keyword == null || keyword.isEmpty()) {
-                return false;
-            }
-            String title = getTitle();
-            String description = getDescription();
-            String subject = getSubject();
-            if (title == null || description == null || subject == null) {
-                return false;
-            }
-            String lowerKeyword = keyword.toLowerCase();
-            boolean matches = title.toLowerCase().contains(lowerKeyword) ||
-                    description.toLowerCase().contains(lowerKeyword) ||
-                    subject.toLowerCase().contains(lowerKeyword);
-            // Additional university paper specific search
-            if (is_university_paper) {
-                String uni = getUniversity();
-                String course = getCourse_code();
-                if (uni != null && uni.toLowerCase().contains(lowerKeyword)) {
-                    matches = true;
-                }
-                if (course != null && course.toLowerCase().contains(lowerKeyword)) {
-                    matches = true;
-                }
-            }
-            return matches;
-        } catch (IllegalStateException e) {
-            throw new IllegalStateException("Failed to match search: " + e.getMessage());
-        } catch (NullPointerException e) {
-            throw new NullPointerException("Null reference encountered while searching");
+    protected void appendSearchFields(StringBuilder builder) {
+        super.appendSearchFields(builder);
+        if (is_university_paper) {
+            appendSearchField(builder, university);
+            appendSearchField(builder, course_code);
         }
     }
 
     public void incrementDownload() {
-        try {
-            if (download_count == Integer.MAX_VALUE) {
-                throw new ArithmeticException("Cannot increment download count: maximum integer value reached");
-            }
-            if (!isAvailable()) {
-                throw new IllegalStateException("Cannot increment download count for unavailable resource");
-            }
-            this.download_count++;
-        } catch (ArithmeticException e) {
-            throw new ArithmeticException("Failed to increment download count: " + e.getMessage());
-        } catch (IllegalStateException e) {
-            throw new IllegalStateException("Failed to increment download count: " + e.getMessage());
+        if (!isAvailable()) {
+            throw new IllegalStateException("Failed to increment download count: Cannot increment download count for unavailable resource");
+        }
+        download_count.increment();
+    }
+
+    // Lets a replica catch up to the primary's count in one step
+    public void addDownloads(long count) {
+        if (count > 0) {
+            download_count.add(count);
         }
     }
 
@@ -2,11 +2,15 @@ package com.studentexchange.models;
 
 import com.studentexchange.enums.Category;
 import com.studentexchange.enums.GradeLevel;
+import java.text.Normalizer;
 import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 public abstract class Item {
     private String item_id;
-    private static int counter = 0;
+    private static final AtomicInteger counter = new AtomicInteger();
     private String title;
     private String description;
     private User uploader;
@@ -14,7 +18,11 @@ public abstract class Item {
     private Category category;
     private GradeLevel grade;
     private String subject;
-    private int views;
+    private final LongAdder views = new LongAdder();
+    // Lowercased, accent-folded searchable fields; rebuilt lazily after a setter clears it
+    private volatile String search_text;
+    // Catalog holding this item; told when availability changes so its live view stays current
+    private volatile Catalog catalog;
 
     public Item(String title, User uploader, String description, Category category, GradeLevel grade, String subject) {
         try {
@@ -36,11 +44,11 @@ public abstract class Item {
             if (subject == null || subject.trim().isEmpty()) {
                 throw new IllegalArgumentException("Subject cannot be null or empty");
             }
-            counter++;
-            if (counter < 0) {
+            int sequence = counter.incrementAndGet();
+            if (sequence < 0) {
                 throw new IllegalStateException("Item counter overflow");
             }
-            this.item_id = "ITEM_" + String.format("%03d", counter);
+            this.item_id = "ITEM_" + String.format("%03d", sequence);
             this.title = title.trim();
             this.description = description.trim();
             this.uploader = uploader;
@@ -48,7 +56,6 @@ public abstract class Item {
             this.category = category;
             this.grade = grade;
             this.subject = subject.trim();
-            this.views = 0;
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to create Item: " + e.getMessage());
         } catch (IllegalStateException e) {
@@ -75,7 +82,11 @@ public abstract class Item {
     }
 
     public int getViews() {
-        return views;
+        return (int) Math.min(views.sum(), Integer.MAX_VALUE);
+    }
+
+    public long getTotal_views() {
+        return views.sum();
     }
 
     public String getItem_id() {
@@ -107,16 +118,102 @@ public abstract class Item {
 
     public abstract boolean isAvailable();
 
-    public abstract boolean matchesSearch(String keyword);
+    public boolean matchesSearch(String keyword) {
+        if (keyword == null) {
+            return false;
+        }
+        return matchesNormalized(normalizeSearchText(keyword));
+    }
 
-    public void incrementViews() {
-        try {
-            if (views == Integer.MAX_VALUE) {
-                throw new ArithmeticException("Cannot increment views: maximum integer value reached");
+    // Expects a keyword already passed through normalizeSearchText, so a catalog
+    // scan normalises the query once and then runs allocation-free per item.
+    public boolean matchesNormalized(String normalizedKeyword) {
+        if (normalizedKeyword == null || normalizedKeyword.isEmpty()) {
+            return false;
+        }
+        return getSearch_text().contains(normalizedKeyword);
+    }
+
+    public String getSearch_text() {
+        String text = search_text;
+        if (text == null) {
+            StringBuilder builder = new StringBuilder();
+            appendSearchFields(builder);
+            text = normalizeSearchText(builder.toString());
+            search_text = text;
+        }
+        return text;
+    }
+
+    // Subclasses append their extra searchable fields, each via appendSearchField
+    protected void appendSearchFields(StringBuilder builder) {
+        appendSearchField(builder, title);
+        appendSearchField(builder, description);
+        appendSearchField(builder, subject);
+    }
+
+    // Fields are separated by a control character so a keyword never matches across two fields
+    protected static void appendSearchField(StringBuilder builder, String value) {
+        if (value != null) {
+            builder.append(value).append('\u0001');
+        }
+    }
+
+    void attachTo(Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    Catalog getCatalog() {
+        return catalog;
+    }
+
+    protected void notifyAvailabilityChanged() {
+        Catalog owner = catalog;
+        if (owner != null) {
+            owner.availabilityChanged(this);
+        }
+    }
+
+    protected void invalidateSearchText() {
+        this.search_text = null;
+    }
+
+    // Lets the owning catalog refresh its shards, cached results and search
+    // indexes after an edit; previousCategory is the category before the edit
+    protected void notifyChanged(Category previousCategory) {
+        Catalog owner = catalog;
+        if (owner != null) {
+            owner.itemChanged(this, previousCategory);
+        }
+    }
+
+    public static String normalizeSearchText(String text) {
+        if (text == null) {
+            return "";
+        }
+        String trimmed = text.trim();
+        boolean ascii = true;
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (trimmed.charAt(i) > 127) {
+                ascii = false;
+                break;
             }
-            this.views++;
-        } catch (ArithmeticException e) {
-            throw new ArithmeticException("Failed to increment views: " + e.getMessage());
+        }
+        if (!ascii) {
+            trimmed = Normalizer.normalize(trimmed, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    // Striped counter: concurrent viewers never contend on a single field
+    public void incrementViews() {
+        views.increment();
+    }
+
+    // Lets a replica catch up to the primary's count in one step
+    public void addViews(long count) {
+        if (count > 0) {
+            views.add(count);
         }
     }
 
@@ -127,6 +224,8 @@ public abstract class Item {
                 throw new IllegalArgumentException("Title cannot be null or empty");
             }
             this.title = title.trim();
+            invalidateSearchText();
+            notifyChanged(category);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to set title: " + e.getMessage());
         }
@@ -138,6 +237,8 @@ public abstract class Item {
                 throw new IllegalArgumentException("Description cannot be null");
             }
             this.description = description.trim();
+            invalidateSearchText();
+            notifyChanged(category);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to set description: " + e.getMessage());
         }
@@ -149,6 +250,7 @@ public abstract class Item {
                 throw new IllegalArgumentException("Grade level cannot be null");
             }
             this.grade = grade;
+            notifyChanged(category);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to set grade: " + e.getMessage());
         }
@@ -160,6 +262,8 @@ public abstract class Item {
                 throw new IllegalArgumentException("Subject cannot be null or empty");
             }
             this.subject = subject.trim();
+            invalidateSearchText();
+            notifyChanged(category);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to set subject: " + e.getMessage());
         }
@@ -170,7 +274,9 @@ public abstract class Item {
             if (category == null) {
                 throw new IllegalArgumentException("Category cannot be null");
             }
+            Category previous = this.category;
             this.category = category;
+            notifyChanged(previous);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to set category: " + e.getMessage());
         }
@@ -88,39 +88,14 @@ public class Notes extends ForSaleItem {
     }
 
     @Override
-    public boolean matchesSearch(String keyword) {
-        try {
-            // First check parent class search
-            boolean parentMatches = super.matchesSearch(keyword);
-            if (parentMatches) {
-                return true;
-            }
-            if (keyword == null || keyword.trim().isEmpty()) {
-                return false;
-            }
-            String lowerKeyword = keyword.toLowerCase().trim();
-            // Notes-specific search
-            String format = getFormat_type().toLowerCase();
-            String quality = getQuality().toLowerCase();
-
-            boolean matchesChapter = false;
+    protected void appendSearchFields(StringBuilder builder) {
+        super.appendSearchFields(builder);
+        appendSearchField(builder, format_type);
+        appendSearchField(builder, quality);
+        if (chapters != null) {
             for (String chapter : chapters) {
-                if (chapter != null && chapter.toLowerCase().contains(lowerKeyword)) {
-                    matchesChapter = true;
-                    break;
-                }
+                appendSearchField(builder, chapter);
             }
-
-            if (format.contains(lowerKeyword)) {
-                return true;
-            }
-            if (quality.contains(lowerKeyword)) {
-                return true;
-            }
-            // Search in chapters
-            return matchesChapter;
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to search notes: " + e.getMessage());
         }
     }
 
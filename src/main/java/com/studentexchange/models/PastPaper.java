@@ -80,6 +80,22 @@ public class PastPaper extends ForSaleItem {
         return year;
     }
 
+    public boolean isHas_answers() {
+        return has_answers;
+    }
+
+    public boolean isHas_model_paper() {
+        return has_model_paper;
+    }
+
+    public boolean isIs_solved() {
+        return is_solved;
+    }
+
+    public boolean isIs_compilation() {
+        return is_compilation;
+    }
+
     public int getTotal_papers() {
         if (total_papers <= 0) {
             throw new IllegalStateException("Total papers is not valid");
@@ -96,34 +112,11 @@ public class PastPaper extends ForSaleItem {
 
 
     @Override
-    public boolean matchesSearch(String keyword) {
-        try {
-            // First check parent class search
-            boolean parentMatches = super.matchesSearch(keyword);
-            if (parentMatches) {
-                return true;
-            }
-            if (keyword == null || keyword.trim().isEmpty()) {
-                return false;
-            }
-            String lowerKeyword = keyword.toLowerCase().trim();
-            // Past paper specific search
-            String board = getExam_board().toLowerCase();
-            String subjCode = getSubject_code().toLowerCase();
-            String yearStr = String.valueOf(getYear());
-            if (board.contains(lowerKeyword)) {
-                return true;
-            }
-            if (subjCode.contains(lowerKeyword)) {
-                return true;
-            }
-            if (yearStr.contains(lowerKeyword)) {
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to search past papers: " + e.getMessage());
-        }
+    protected void appendSearchFields(StringBuilder builder) {
+        super.appendSearchFields(builder);
+        appendSearchField(builder, exam_board);
+        appendSearchField(builder, subject_code);
+        appendSearchField(builder, String.valueOf(year));
     }
 
     @Override
@@ -0,0 +1,44 @@
+package com.studentexchange.models;
+
+// Immutable view of a user's review aggregates: count, sum and a histogram of
+// star ratings (index 0 holds the 1-star count).
+public final class RatingSummary {
+    public static final RatingSummary EMPTY = new RatingSummary(0, 0, new int[5]);
+
+    private final int count;
+    private final long sum;
+    private final int[] histogram;
+
+    public RatingSummary(int count, long sum, int[] histogram) {
+        if (histogram == null || histogram.length != 5) {
+            throw new IllegalArgumentException("Histogram must have one slot per star rating");
+        }
+        this.count = count;
+        this.sum = sum;
+        this.histogram = histogram.clone();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public float getAverage() {
+        return count == 0 ? 0.0f : (float) sum / count;
+    }
+
+    public int getStarCount(int stars) {
+        if (stars < 1 || stars > 5) {
+            throw new IllegalArgumentException("Stars must be between 1 and 5");
+        }
+        return histogram[stars - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f (%d reviews)", getAverage(), count);
+    }
+}
@@ -1,10 +1,11 @@
 package com.studentexchange.models;
 
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Review {
     private String review_id;
-    private static int counter = 0;
+    private static final AtomicInteger counter = new AtomicInteger();
     private int rating;
     private String comment;
     private Date review_date;
@@ -46,11 +47,11 @@ public class Review {
             if (!transaction.getBuyer().equals(reviewed_user) && !transaction.getSeller().equals(reviewed_user)) {
                 throw new IllegalArgumentException("Reviewed user must be either buyer or seller in the transaction");
             }
-            counter++;
-            if (counter < 0) {
+            int sequence = counter.incrementAndGet();
+            if (sequence < 0) {
                 throw new IllegalStateException("Review counter overflow");
             }
-            this.review_id = "REVIEW_" + String.format("%03d", counter);
+            this.review_id = "REVIEW_" + String.format("%03d", sequence);
             this.rating = rating;
             this.comment = comment.trim();
             this.review_date = new Date();
@@ -0,0 +1,54 @@
+package com.studentexchange.models;
+
+// Learns what testing one item against a predicate costs from timings of real
+// scans (an exponentially weighted average), and derives from it whether a scan
+// is worth splitting and how large each fork-join leaf should be.
+class ScanCostModel {
+    // A scan expected to finish faster than this stays on the calling thread
+    private static final long MIN_PARALLEL_NANOS = 200_000;
+    // Work per leaf task, large enough to amortise the fork/join overhead
+    private static final long TARGET_LEAF_NANOS = 50_000;
+    private static final int MIN_LEAF = 256;
+    private static final int MIN_SAMPLE = 64;
+    private static final double INITIAL_NANOS_PER_ITEM = 50;
+    private static final double SMOOTHING = 0.2;
+
+    private final int workers;
+    private volatile double nanos_per_item = INITIAL_NANOS_PER_ITEM;
+
+    ScanCostModel() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    ScanCostModel(int workers) {
+        this.workers = workers;
+    }
+
+    // Samples from tiny scans are mostly timer noise and are ignored. Racing
+    // updates may drop a sample, which only slows convergence.
+    void record(int items, long nanos) {
+        if (items < MIN_SAMPLE || nanos <= 0) {
+            return;
+        }
+        double sample = (double) nanos / items;
+        nanos_per_item = nanos_per_item * (1 - SMOOTHING) + sample * SMOOTHING;
+    }
+
+    boolean shouldSplit(int items) {
+        return workers > 1 && items >= sequentialCutoff();
+    }
+
+    int sequentialCutoff() {
+        return (int) Math.max(2L * MIN_LEAF, (long) Math.ceil(MIN_PARALLEL_NANOS / nanos_per_item));
+    }
+
+    int leafSize(int items) {
+        int bySpeed = (int) Math.min(Integer.MAX_VALUE, (long) (TARGET_LEAF_NANOS / nanos_per_item));
+        int byWorkers = (items + workers - 1) / workers;
+        return Math.max(MIN_LEAF, Math.min(bySpeed, byWorkers));
+    }
+
+    double getNanosPerItem() {
+        return nanos_per_item;
+    }
+}
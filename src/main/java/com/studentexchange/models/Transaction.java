@@ -4,14 +4,13 @@ import com.studentexchange.enums.PaymentMethod;
 import com.studentexchange.enums.PaymentStatus;
 import com.studentexchange.enums.ShippingStatus;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Transaction {
     private String transaction_id;
-    private static int counter = 0;
+    private static final AtomicInteger counter = new AtomicInteger();
     private User buyer;
     private User seller;
     private ForSaleItem item;
@@ -25,6 +24,10 @@ public class Transaction {
     private Review seller_review;
     private boolean reviews_completed;
     private int credits_used;
+    private TransactionGroup group;
+    private volatile TransactionStatus status_snapshot;
+    // Set once the transaction is written to the archive; it is then frozen
+    private volatile boolean archived;
 
     public Transaction(User buyer, User seller, ForSaleItem item, PaymentMethod payment_method) {
         try {
@@ -49,11 +52,11 @@ public class Transaction {
             if (!item.canBePurchased()) {
                 throw new IllegalArgumentException("Item cannot be purchased");
             }
-            counter++;
-            if (counter < 0) {
+            int sequence = counter.incrementAndGet();
+            if (sequence < 0) {
                 throw new IllegalStateException("Transaction counter overflow");
             }
-            this.transaction_id = "TRANSACTION_" + String.format("%03d", counter);
+            this.transaction_id = "TRANSACTION_" + String.format("%03d", sequence);
             this.buyer = buyer;
             this.seller = seller;
             this.item = item;
@@ -140,6 +143,42 @@ public class Transaction {
         return new Date(transaction_date.getTime());
     }
 
+    public Review getBuyer_review() {
+        return buyer_review;
+    }
+
+    public Review getSeller_review() {
+        return seller_review;
+    }
+
+    public boolean isReviews_completed() {
+        return reviews_completed;
+    }
+
+    public TransactionGroup getGroup() {
+        return group;
+    }
+
+    void setGroup(TransactionGroup group) {
+        this.group = group;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
+    public Date getShipping_date() {
+        return shipping_date != null ? new Date(shipping_date.getTime()) : null;
+    }
+
+    public Date getDelivery_date() {
+        return delivery_date != null ? new Date(delivery_date.getTime()) : null;
+    }
+
     public List<Transaction> getTransactionsAsBuyer() {
         // Placeholder for consistency, actual list managed in User
         return new java.util.ArrayList<>();
@@ -151,31 +190,32 @@ public class Transaction {
     }
 
 
-    public Map<String, String> getTransactionStatus() {
+    public TransactionStatus getTransactionStatus() {
         try {
-            Map<String, String> status = new HashMap<>();
-            String transId = getTransaction_id();
-            PaymentStatus payStatus = getPayment_status();
-            ShippingStatus shipStatus = getShipping_status();
-            PaymentMethod payMethod = getPayment_method();
-            int credits = getCredits_used();
-            long daysSinceTransaction = getDaysSinceTransaction();
-
-            status.put("Transaction ID", transId);
-            status.put("Payment Status", payStatus.name());
-            status.put("Shipping Status", shipStatus.name());
-            status.put("Payment Method", payMethod.name());
-            status.put("Reviews Completed", reviews_completed ? "Yes" : "No");
-            status.put("Credits Used", String.valueOf(credits));
-            status.put("Total Amount", String.format("Rs. %.2f", calculateTotal()));
-            status.put("Is Complete", isComplete() ? "Yes" : "No");
-            status.put("Days Since Transaction", String.valueOf(daysSinceTransaction));
+            TransactionStatus status = status_snapshot;
+            if (status == null) {
+                status = new TransactionStatus(
+                        getTransaction_id(),
+                        getPayment_status(),
+                        getShipping_status(),
+                        getPayment_method(),
+                        reviews_completed,
+                        getCredits_used(),
+                        calculateTotal(),
+                        isComplete(),
+                        transaction_date.getTime());
+                status_snapshot = status;
+            }
             return status;
         } catch (Exception e) {
             throw new IllegalStateException("Failed to get transaction status: " + e.getMessage());
         }
     }
 
+    private void invalidateStatus() {
+        this.status_snapshot = null;
+    }
+
     public long getDaysSinceTransaction() {
         try {
             Date transDate = getTransaction_date();
@@ -232,6 +272,7 @@ public class Transaction {
                 credits = (int) Math.floor(maxDiscount / 10.0f);
             }
             this.credits_used = credits;
+            invalidateStatus();
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to apply credits: " + e.getMessage());
         } catch (IllegalStateException e) {
@@ -239,12 +280,49 @@ public class Transaction {
         }
     }
 
+    // Attaches a review left by one side of this transaction. Reviews count as
+    // completed once both the buyer and the seller have left one.
+    public void recordReview(Review review) {
+        try {
+            if (review == null) {
+                throw new IllegalArgumentException("Review cannot be null");
+            }
+            if (review.getTransaction() != this) {
+                throw new IllegalArgumentException("Review belongs to a different transaction");
+            }
+            if (archived) {
+                throw new IllegalStateException("Transaction has been archived");
+            }
+            User reviewer = review.getReviewer_user();
+            if (reviewer.equals(buyer)) {
+                if (buyer_review != null) {
+                    throw new IllegalStateException("Buyer has already reviewed this transaction");
+                }
+                this.buyer_review = review;
+            } else {
+                if (seller_review != null) {
+                    throw new IllegalStateException("Seller has already reviewed this transaction");
+                }
+                this.seller_review = review;
+            }
+            this.reviews_completed = buyer_review != null && seller_review != null;
+            invalidateStatus();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to record review: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Failed to record review: " + e.getMessage());
+        }
+    }
+
     // Minimal setter methods retained for internal logic
     public void updateShippingStatus(ShippingStatus status) {
         try {
             if (status == null) {
                 throw new IllegalArgumentException("Shipping status cannot be null");
             }
+            if (archived) {
+                throw new IllegalStateException("Transaction has been archived");
+            }
             if (payment_status != PaymentStatus.COMPLETED &&
                     status != ShippingStatus.NOT_SHIPPED) {
                 throw new IllegalStateException("Cannot update shipping status before payment completion");
@@ -264,6 +342,7 @@ public class Transaction {
             if (shipping_status == ShippingStatus.DELIVERED && delivery_date == null) {
                 this.delivery_date = new Date();
             }
+            invalidateStatus();
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to set shipping status: " + e.getMessage());
         } catch (IllegalStateException e) {
@@ -282,13 +361,15 @@ public class Transaction {
             if (payment_status == PaymentStatus.FAILED) {
                 throw new IllegalStateException("Cannot complete a failed payment. Please retry payment");
             }
-            if (!item.isAvailable()) {
-                throw new IllegalStateException("Item is no longer available for purchase");
+            // The constructor already marked the item as sold to this buyer
+            if (!item.isIs_sold() || item.getBuyer() != buyer) {
+                throw new IllegalStateException("Item is no longer reserved for this buyer");
             }
             this.payment_method = method;
             this.payment_status = PaymentStatus.COMPLETED;
+            invalidateStatus();
             if (credits_used > 0) {
-                boolean creditsDeducted = buyer.useCreditPoints(credits_used);
+                boolean creditsDeducted = buyer.useCreditPoints(credits_used, "Purchase " + transaction_id);
                 if (!creditsDeducted) {
                     throw new IllegalStateException("Failed to deduct credit points");
                 }
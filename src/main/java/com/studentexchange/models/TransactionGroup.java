@@ -0,0 +1,97 @@
+package com.studentexchange.models;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TransactionGroup {
+    private String group_id;
+    private static final AtomicInteger counter = new AtomicInteger();
+    private User buyer;
+    private List<Transaction> transactions;
+    private Date created_date;
+
+    public TransactionGroup(User buyer, List<Transaction> transactions) {
+        try {
+            if (buyer == null) {
+                throw new IllegalArgumentException("Buyer cannot be null");
+            }
+            if (transactions == null || transactions.isEmpty()) {
+                throw new IllegalArgumentException("Group must contain at least one transaction");
+            }
+            for (Transaction transaction : transactions) {
+                if (transaction == null) {
+                    throw new IllegalArgumentException("Transaction cannot be null");
+                }
+                if (!transaction.getBuyer().equals(buyer)) {
+                    throw new IllegalArgumentException("All transactions in a group must share the same buyer");
+                }
+                if (transaction.getGroup() != null) {
+                    throw new IllegalArgumentException("Transaction " + transaction.getTransaction_id() + " already belongs to a group");
+                }
+            }
+            int sequence = counter.incrementAndGet();
+            if (sequence < 0) {
+                throw new IllegalStateException("Transaction group counter overflow");
+            }
+            this.group_id = "GROUP_" + String.format("%03d", sequence);
+            this.buyer = buyer;
+            this.transactions = new ArrayList<>(transactions);
+            this.created_date = new Date();
+            for (Transaction transaction : this.transactions) {
+                transaction.setGroup(this);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to create TransactionGroup: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Failed to create TransactionGroup: " + e.getMessage());
+        }
+    }
+
+    public String getGroup_id() {
+        return group_id;
+    }
+
+    public User getBuyer() {
+        return buyer;
+    }
+
+    public List<Transaction> getTransactions() {
+        return new ArrayList<>(transactions);
+    }
+
+    public Date getCreated_date() {
+        return new Date(created_date.getTime());
+    }
+
+    public int getCredits_used() {
+        int credits = 0;
+        for (Transaction transaction : transactions) {
+            credits += transaction.getCredits_used();
+        }
+        return credits;
+    }
+
+    public float calculateTotal() {
+        float total = 0;
+        for (Transaction transaction : transactions) {
+            total += transaction.calculateTotal();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return String.format("Group ID: %s | Buyer: %s | Items: %d | Credits Used: %d | Total: Rs. %.2f",
+                    group_id,
+                    buyer.getName(),
+                    transactions.size(),
+                    getCredits_used(),
+                    calculateTotal());
+        } catch (Exception e) {
+            return "TransactionGroup [Error in toString(): " + e.getMessage() + "]";
+        }
+    }
+}
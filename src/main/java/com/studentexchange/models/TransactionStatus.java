@@ -0,0 +1,67 @@
+package com.studentexchange.models;
+
+import com.studentexchange.enums.PaymentMethod;
+import com.studentexchange.enums.PaymentStatus;
+import com.studentexchange.enums.ShippingStatus;
+
+// Immutable snapshot of a transaction's state. Built once per state change and
+// cached on the Transaction; turning it into display text is left to the view.
+public final class TransactionStatus {
+    private final String transaction_id;
+    private final PaymentStatus payment_status;
+    private final ShippingStatus shipping_status;
+    private final PaymentMethod payment_method;
+    private final boolean reviews_completed;
+    private final int credits_used;
+    private final float total_amount;
+    private final boolean is_complete;
+    private final long transaction_time;
+
+    TransactionStatus(String transaction_id, PaymentStatus payment_status, ShippingStatus shipping_status, PaymentMethod payment_method, boolean reviews_completed, int credits_used, float total_amount, boolean is_complete, long transaction_time) {
+        this.transaction_id = transaction_id;
+        this.payment_status = payment_status;
+        this.shipping_status = shipping_status;
+        this.payment_method = payment_method;
+        this.reviews_completed = reviews_completed;
+        this.credits_used = credits_used;
+        this.total_amount = total_amount;
+        this.is_complete = is_complete;
+        this.transaction_time = transaction_time;
+    }
+
+    public String getTransaction_id() {
+        return transaction_id;
+    }
+
+    public PaymentStatus getPayment_status() {
+        return payment_status;
+    }
+
+    public ShippingStatus getShipping_status() {
+        return shipping_status;
+    }
+
+    public PaymentMethod getPayment_method() {
+        return payment_method;
+    }
+
+    public boolean isReviews_completed() {
+        return reviews_completed;
+    }
+
+    public int getCredits_used() {
+        return credits_used;
+    }
+
+    public float getTotal_amount() {
+        return total_amount;
+    }
+
+    public boolean isIs_complete() {
+        return is_complete;
+    }
+
+    public long getTransaction_time() {
+        return transaction_time;
+    }
+}
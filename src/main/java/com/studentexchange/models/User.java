@@ -1,26 +1,51 @@
 package com.studentexchange.models;
 
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 public class User {
+    private static final String HASH_SCHEME = "pbkdf2-sha256";
+    private static final int HASH_ITERATIONS = 65536;
+    private static final SecureRandom random = new SecureRandom();
+
     private String user_id;
-    private static int counter = 0;
+    private static final AtomicInteger counter = new AtomicInteger();
     private String name;
     private String cnic;
     private String email;
-    private String password;
+    // Salted PBKDF2 digest; the password itself is never kept
+    private String password_hash;
     private String phone;
     private String address;
     private Date registration_date;
-    private int credit_points;
+    private CreditAccount credit_account;
     private boolean is_verified;
     private float average_rating;
-    private List<Transaction> transactions_as_buyer;
-    private List<Transaction> transactions_as_seller;
+    private Map<String, Transaction> transactions_as_buyer;
+    private Map<String, Transaction> transactions_as_seller;
 
     public User(String name, String cnic, String email, String password, String phone, String address) {
+        this(name, cnic, email, password, false, phone, address);
+    }
+
+    // For a user registered elsewhere, such as on a replication primary, whose
+    // password arrives already hashed
+    public static User withPasswordHash(String name, String cnic, String email, String password_hash, String phone, String address) {
+        return new User(name, cnic, email, password_hash, true, phone, address);
+    }
+
+    private User(String name, String cnic, String email, String password, boolean hashed, String phone, String address) {
         try {
             if (name == null || name.trim().isEmpty()) {
                 throw new IllegalArgumentException("Name cannot be null or empty");
@@ -37,26 +62,31 @@ public class User {
             if (password == null || password.trim().isEmpty()) {
                 throw new IllegalArgumentException("Password cannot be null or empty");
             }
+            if (hashed && !password.startsWith(HASH_SCHEME + "$")) {
+                throw new IllegalArgumentException("Unsupported password hash");
+            }
             if (phone == null || phone.trim().isEmpty()) {
                 throw new IllegalArgumentException("Phone cannot be null or empty");
             }
             if (address == null || address.trim().isEmpty()) {
                 throw new IllegalArgumentException("Address cannot be null or empty");
             }
-            counter++;
-            this.user_id = "USER_" + String.format("%03d", counter);
+            int sequence = counter.incrementAndGet();
+            this.user_id = "USER_" + String.format("%03d", sequence);
             this.name = name.trim();
             this.cnic = cnic.trim();
             this.email = email.trim();
-            this.password = password.trim();
+            this.password_hash = hashed ? password : hashPassword(password.trim());
             setPhone(phone);
             this.address = address.trim();
             this.registration_date = new Date();
-            this.credit_points = 0;
+            this.credit_account = new CreditAccount(this.user_id);
             this.is_verified = false;
             this.average_rating = 0.0f;
-            this.transactions_as_buyer = new ArrayList<>();
-            this.transactions_as_seller = new ArrayList<>();
+            // Requests for the same user can arrive on different threads; keyed by
+            // ID in creation order so an archived transaction is dropped in O(1)
+            this.transactions_as_buyer = Collections.synchronizedMap(new LinkedHashMap<>());
+            this.transactions_as_seller = Collections.synchronizedMap(new LinkedHashMap<>());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to create User: " + e.getMessage(), e);
         }
@@ -99,8 +129,40 @@ public class User {
         }
     }
 
-    public String getPassword() {
-        return password;
+    public String getPassword_hash() {
+        return password_hash;
+    }
+
+    public boolean checkPassword(String password) {
+        if (password == null) {
+            return false;
+        }
+        String[] parts = password_hash.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        byte[] salt = Base64.getDecoder().decode(parts[2]);
+        byte[] expected = Base64.getDecoder().decode(parts[3]);
+        return MessageDigest.isEqual(expected, derive(password, salt, Integer.parseInt(parts[1])));
+    }
+
+    private static String hashPassword(String password) {
+        byte[] salt = new byte[16];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return HASH_SCHEME + "$" + HASH_ITERATIONS + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(derive(password, salt, HASH_ITERATIONS));
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, 256);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to hash password: " + e.getMessage());
+        } finally {
+            spec.clearPassword();
+        }
     }
 
     public String getPhone() {
@@ -142,7 +204,11 @@ public class User {
     }
 
     public int getCredit_points() {
-        return credit_points;
+        return credit_account.getBalance();
+    }
+
+    public CreditAccount getCredit_account() {
+        return credit_account;
     }
 
     public boolean isIs_verified() {
@@ -153,6 +219,13 @@ public class User {
         return average_rating;
     }
 
+    public void setAverage_rating(float average_rating) {
+        if (average_rating < 0 || average_rating > 5 || Float.isNaN(average_rating)) {
+            throw new IllegalArgumentException("Average rating must be between 0 and 5");
+        }
+        this.average_rating = average_rating;
+    }
+
     public String getUser_id() {
         return user_id;
     }
@@ -162,36 +235,32 @@ public class User {
     }
 
     public List<Transaction> getTransactionsAsBuyer() {
-        return new ArrayList<>(transactions_as_buyer);
+        return new ArrayList<>(transactions_as_buyer.values());
     }
 
     public List<Transaction> getTransactionsAsSeller() {
-        return new ArrayList<>(transactions_as_seller);
+        return new ArrayList<>(transactions_as_seller.values());
     }
 
     public void addCreditPoints(int points) {
+        addCreditPoints(points, "Credit");
+    }
+
+    public void addCreditPoints(int points, String reason) {
         try {
-            if (points <= 0) {
-                throw new IllegalArgumentException("Credit points to add must be positive");
-            }
-            this.credit_points += points;
+            credit_account.credit(points, reason);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to add credit points: " + e.getMessage(), e);
-        } catch (ArithmeticException e) {
-            throw new ArithmeticException("Credit points overflow occurred when adding " + points + " points");
         }
     }
 
     public boolean useCreditPoints(int points) {
+        return useCreditPoints(points, "Debit");
+    }
+
+    public boolean useCreditPoints(int points, String reason) {
         try {
-            if (points <= 0) {
-                throw new IllegalArgumentException("Credit points to use must be positive");
-            }
-            if (credit_points >= points) {
-                this.credit_points -= points;
-                return true;
-            }
-            return false;
+            return credit_account.tryDebit(points, reason) != null;
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to use credit points: " + e.getMessage(), e);
         }
@@ -202,7 +271,7 @@ public class User {
             if (transaction == null) {
                 throw new IllegalArgumentException("Transaction cannot be null");
             }
-            this.transactions_as_buyer.add(transaction);
+            this.transactions_as_buyer.put(transaction.getTransaction_id(), transaction);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to add buyer transaction: " + e.getMessage(), e);
         } catch (UnsupportedOperationException e) {
@@ -215,7 +284,7 @@ public class User {
             if (transaction == null) {
                 throw new IllegalArgumentException("Transaction cannot be null");
             }
-            this.transactions_as_seller.add(transaction);
+            this.transactions_as_seller.put(transaction.getTransaction_id(), transaction);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to add seller transaction: " + e.getMessage(), e);
         } catch (UnsupportedOperationException e) {
@@ -223,6 +292,14 @@ public class User {
         }
     }
 
+    // Forgets a transaction once it has been moved to the archive
+    public void removeTransaction(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        transactions_as_buyer.remove(transaction.getTransaction_id(), transaction);
+        transactions_as_seller.remove(transaction.getTransaction_id(), transaction);
+    }
 
     public void updateProfile(String name, String phone, String address) {
         try {
@@ -0,0 +1,220 @@
+package com.studentexchange.replication;
+
+import com.studentexchange.enums.*;
+import com.studentexchange.models.*;
+import com.studentexchange.services.StudentBookExchange;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Replays primary log entries against a replica's own StudentBookExchange.
+// Entries name users, items and transactions by their primary IDs; local
+// objects are found through translation maps, so a replica stays correct even
+// if concurrent primary writes were logged in a different order than their
+// IDs were handed out.
+class MutationApplier {
+    private final StudentBookExchange system;
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, Item> items = new HashMap<>();
+    private final Map<String, Transaction> transactions = new HashMap<>();
+
+    MutationApplier(StudentBookExchange system) {
+        this.system = system;
+    }
+
+    void apply(MutationEntry entry) {
+        switch (entry.getType()) {
+            case REGISTER_USER: {
+                // The password arrives as the primary's hash
+                User user = User.withPasswordHash(entry.getField(1), entry.getField(2), entry.getField(3),
+                        entry.getField(4), entry.getField(5), entry.getField(6));
+                system.adduser(user);
+                users.put(entry.getField(0), user);
+                break;
+            }
+            case UPDATE_PROFILE:
+                system.updateProfile(user(entry.getField(0)), entry.getField(1), entry.getField(2), entry.getField(3),
+                        entry.getField(4));
+                break;
+            case UPLOAD_BOOK:
+                items.put(entry.getField(0), system.uploadBook(user(entry.getField(1)), entry.getField(2), entry.getField(3),
+                        Category.valueOf(entry.getField(4)), GradeLevel.valueOf(entry.getField(5)), entry.getField(6),
+                        Condition.valueOf(entry.getField(7)), Float.parseFloat(entry.getField(8)), Float.parseFloat(entry.getField(9)),
+                        entry.getField(10), entry.getField(11), entry.getField(12), Integer.parseInt(entry.getField(13)),
+                        Boolean.parseBoolean(entry.getField(14))));
+                break;
+            case ADD_ITEM:
+                applyAddItem(entry);
+                break;
+            case EDIT_ITEM:
+                applyEditItem(entry);
+                break;
+            case REMOVE_ITEM: {
+                Item removed = items.remove(entry.getField(0));
+                if (removed != null) {
+                    system.getCatalog().removeItem(removed);
+                }
+                break;
+            }
+            case ITEM_COUNTS:
+                applyCounts(entry);
+                break;
+            case ADJUST_CREDITS: {
+                int points = Integer.parseInt(entry.getField(1));
+                if (points >= 0) {
+                    system.getCreditLedger().refund(user(entry.getField(0)), points, entry.getField(2));
+                } else if (!system.getCreditLedger().spend(user(entry.getField(0)), -points, entry.getField(2))) {
+                    throw new IllegalStateException("Insufficient credit points for " + entry.getField(0));
+                }
+                break;
+            }
+            case PURCHASE:
+                transactions.put(entry.getField(0), system.createTransaction(user(entry.getField(1)), item(entry.getField(2)),
+                        PaymentMethod.valueOf(entry.getField(3))));
+                break;
+            case CHECKOUT:
+                applyCheckout(entry);
+                break;
+            case UPDATE_SHIPPING:
+                system.updateShippingStatus(transaction(entry.getField(0)), ShippingStatus.valueOf(entry.getField(1)));
+                break;
+            case SUBMIT_REVIEW:
+                system.submitReview(user(entry.getField(1)), user(entry.getField(2)), transaction(entry.getField(3)),
+                        Integer.parseInt(entry.getField(4)), entry.getField(5));
+                break;
+            case ARCHIVE:
+                // The item's own REMOVE_ITEM entry came first, from the catalog hook
+                system.removeArchived(transaction(entry.getField(0)));
+                transactions.remove(entry.getField(0));
+                items.remove(entry.getField(1));
+                break;
+            case SUGGESTION_PICKED:
+                system.recordSuggestionPicked(entry.getField(0));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported mutation type: " + entry.getType());
+        }
+    }
+
+    // Fields: item, class name, uploader, title, description, category, grade,
+    // subject, then the constructor fields of that class
+    private void applyAddItem(MutationEntry entry) {
+        String kind = entry.getField(1);
+        User uploader = user(entry.getField(2));
+        String title = entry.getField(3);
+        String description = entry.getField(4);
+        Category category = Category.valueOf(entry.getField(5));
+        GradeLevel grade = GradeLevel.valueOf(entry.getField(6));
+        String subject = entry.getField(7);
+        Item item;
+        if (kind.equals("FreeResource")) {
+            item = new FreeResource(title, uploader, description, category, grade, subject, entry.getField(8),
+                    Boolean.parseBoolean(entry.getField(9)), entry.getField(10), entry.getField(11),
+                    Integer.parseInt(entry.getField(12)), entry.getField(13), entry.getField(14),
+                    Boolean.parseBoolean(entry.getField(15)), Boolean.parseBoolean(entry.getField(16)),
+                    Float.parseFloat(entry.getField(17)), entry.getField(18));
+        } else {
+            Condition condition = Condition.valueOf(entry.getField(8));
+            float marketPrice = Float.parseFloat(entry.getField(9));
+            float price = Float.parseFloat(entry.getField(10));
+            switch (kind) {
+                case "ForSaleItem":
+                    item = new ForSaleItem(title, uploader, description, category, grade, subject, condition, marketPrice, price);
+                    break;
+                case "Notes":
+                    item = new Notes(title, uploader, description, category, grade, subject, condition, marketPrice, price,
+                            Integer.parseInt(entry.getField(11)), entry.getField(12), Boolean.parseBoolean(entry.getField(13)),
+                            Boolean.parseBoolean(entry.getField(14)), entry.getField(15));
+                    break;
+                case "PastPaper":
+                    item = new PastPaper(title, uploader, description, category, grade, subject, condition, marketPrice, price,
+                            entry.getField(11), Integer.parseInt(entry.getField(12)), Boolean.parseBoolean(entry.getField(13)),
+                            Boolean.parseBoolean(entry.getField(14)), Boolean.parseBoolean(entry.getField(15)),
+                            Integer.parseInt(entry.getField(16)), entry.getField(17), Boolean.parseBoolean(entry.getField(18)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported item type: " + kind);
+            }
+        }
+        system.getCatalog().addItem(item);
+        items.put(entry.getField(0), item);
+    }
+
+    // Edits and counts carry the item's whole current state, so applying one
+    // twice is harmless, and one that races its item's removal on the primary
+    // finds the item gone here and is dropped
+    private void applyEditItem(MutationEntry entry) {
+        Item item = items.get(entry.getField(0));
+        if (item == null) {
+            return;
+        }
+        if (!item.getTitle().equals(entry.getField(1))) {
+            item.setTitle(entry.getField(1));
+        }
+        if (!item.getDescription().equals(entry.getField(2))) {
+            item.setDescription(entry.getField(2));
+        }
+        Category category = Category.valueOf(entry.getField(3));
+        if (item.getCategory() != category) {
+            item.setCategory(category);
+        }
+        GradeLevel grade = GradeLevel.valueOf(entry.getField(4));
+        if (item.getGrade() != grade) {
+            item.setGrade(grade);
+        }
+        if (!item.getSubject().equals(entry.getField(5))) {
+            item.setSubject(entry.getField(5));
+        }
+    }
+
+    private void applyCounts(MutationEntry entry) {
+        Item item = items.get(entry.getField(0));
+        if (item == null) {
+            return;
+        }
+        item.addViews(Long.parseLong(entry.getField(1)) - item.getTotal_views());
+        if (item instanceof FreeResource) {
+            FreeResource resource = (FreeResource) item;
+            resource.addDownloads(Long.parseLong(entry.getField(2)) - resource.getTotal_downloads());
+        }
+    }
+
+    private void applyCheckout(MutationEntry entry) {
+        int count = Integer.parseInt(entry.getField(4));
+        List<Item> basket = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            basket.add(item(entry.getField(5 + i)));
+        }
+        TransactionGroup group = system.checkout(user(entry.getField(1)), basket, PaymentMethod.valueOf(entry.getField(2)),
+                Integer.parseInt(entry.getField(3)));
+        List<Transaction> created = group.getTransactions();
+        for (int i = 0; i < count; i++) {
+            transactions.put(entry.getField(5 + count + i), created.get(i));
+        }
+    }
+
+    private User user(String primaryId) {
+        User user = users.get(primaryId);
+        if (user == null) {
+            throw new IllegalStateException("Unknown user " + primaryId);
+        }
+        return user;
+    }
+
+    private Item item(String primaryId) {
+        Item item = items.get(primaryId);
+        if (item == null) {
+            throw new IllegalStateException("Unknown item " + primaryId);
+        }
+        return item;
+    }
+
+    private Transaction transaction(String primaryId) {
+        Transaction transaction = transactions.get(primaryId);
+        if (transaction == null) {
+            throw new IllegalStateException("Unknown transaction " + primaryId);
+        }
+        return transaction;
+    }
+}
@@ -0,0 +1,136 @@
+package com.studentexchange.replication;
+
+import com.studentexchange.enums.MutationType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// One record of the primary's mutation log. On the wire an entry is a single
+// line of tab-separated fields: sequence, primary timestamp, type, then the
+// mutation's own fields with backslash escapes for tabs, newlines and nulls.
+public final class MutationEntry {
+    private static final String NULL_FIELD = "\\N";
+
+    private final long sequence;
+    private final long timestamp;
+    private final MutationType type;
+    private final List<String> fields;
+
+    public MutationEntry(long sequence, long timestamp, MutationType type, List<String> fields) {
+        if (type == null) {
+            throw new IllegalArgumentException("Mutation type cannot be null");
+        }
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public MutationType getType() {
+        return type;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public String getField(int index) {
+        if (index < 0 || index >= fields.size()) {
+            throw new IllegalArgumentException(type + " entry " + sequence + " has no field " + index);
+        }
+        return fields.get(index);
+    }
+
+    public String encode() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(sequence).append('\t').append(timestamp).append('\t').append(type.name());
+        for (String field : fields) {
+            builder.append('\t');
+            if (field == null) {
+                builder.append(NULL_FIELD);
+                continue;
+            }
+            for (int i = 0; i < field.length(); i++) {
+                char c = field.charAt(i);
+                switch (c) {
+                    case '\\':
+                        builder.append("\\\\");
+                        break;
+                    case '\t':
+                        builder.append("\\t");
+                        break;
+                    case '\n':
+                        builder.append("\\n");
+                        break;
+                    case '\r':
+                        builder.append("\\r");
+                        break;
+                    default:
+                        builder.append(c);
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    public static MutationEntry decode(String line) {
+        try {
+            String[] parts = line.split("\t", -1);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Too few fields");
+            }
+            List<String> fields = new ArrayList<>(parts.length - 3);
+            for (int i = 3; i < parts.length; i++) {
+                fields.add(unescape(parts[i]));
+            }
+            return new MutationEntry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), MutationType.valueOf(parts[2]), fields);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed log entry: " + e.getMessage());
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.equals(NULL_FIELD)) {
+            return null;
+        }
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                builder.append(c);
+                continue;
+            }
+            char next = value.charAt(++i);
+            switch (next) {
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                default:
+                    builder.append(next);
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " " + fields;
+    }
+}
@@ -0,0 +1,56 @@
+package com.studentexchange.replication;
+
+import com.studentexchange.enums.MutationType;
+import com.studentexchange.services.StudentBookExchange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Append-only, in-memory log of the primary's mutations, numbered from 1.
+// Shippers block in readAfter until entries past their position arrive. The
+// full history is kept so a replica that starts late can rebuild from scratch.
+// Each log has a random ID; a primary that restarts starts a new log, and
+// replicas that followed the old one must rebuild rather than resume.
+public class MutationLog implements StudentBookExchange.MutationListener {
+    private final String logId = UUID.randomUUID().toString();
+    private final List<MutationEntry> entries = new ArrayList<>();
+
+    public String getLogId() {
+        return logId;
+    }
+
+    @Override
+    public void onMutation(MutationType type, List<String> fields) {
+        append(type, fields);
+    }
+
+    public synchronized MutationEntry append(MutationType type, List<String> fields) {
+        MutationEntry entry = new MutationEntry(entries.size() + 1, System.currentTimeMillis(), type, fields);
+        entries.add(entry);
+        notifyAll();
+        return entry;
+    }
+
+    public synchronized long getLastSequence() {
+        return entries.size();
+    }
+
+    // Up to max entries with sequence greater than after, waiting at most
+    // timeoutMillis for one to appear; an empty list means none arrived
+    public synchronized List<MutationEntry> readAfter(long after, int max, long timeoutMillis) throws InterruptedException {
+        if (after < 0) {
+            throw new IllegalArgumentException("Sequence cannot be negative");
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (entries.size() <= after) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return List.of();
+            }
+            wait(remaining);
+        }
+        int from = (int) after;
+        int to = Math.min(entries.size(), from + max);
+        return new ArrayList<>(entries.subList(from, to));
+    }
+}
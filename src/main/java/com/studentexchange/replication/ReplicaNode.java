@@ -0,0 +1,286 @@
+package com.studentexchange.replication;
+
+import com.studentexchange.services.StudentBookExchange;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Read replica: follows a ReplicationPrimary, replays its log into a private
+// StudentBookExchange and serves reads from it. Entries are applied under the
+// write side of a read/write lock that readers share, and the replica
+// reconnects from its last applied position whenever the stream drops.
+// The replica rebuilds from an empty system when the primary's log ID changes
+// (the primary restarted) or when an entry fails to apply; until the rebuild
+// starts it reports itself unhealthy. Both ends prove they hold the shared
+// replication secret before any entry is accepted (see ReplicationPrimary).
+public class ReplicaNode implements AutoCloseable {
+    private static final long RECONNECT_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final int READ_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(5);
+
+    private final String host;
+    private final int port;
+    private final ReplicationAuth auth;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile StudentBookExchange system = new StudentBookExchange();
+    private MutationApplier applier = new MutationApplier(system);
+    private final Thread follower;
+    private volatile boolean running = true;
+    private volatile boolean started;
+    private volatile String logId;
+    private volatile boolean resyncing;
+    private volatile boolean diverged;
+    private volatile long lastFailedSequence;
+    private volatile String lastError;
+    private volatile long rebuilds;
+    private volatile Socket socket;
+    private volatile boolean connected;
+    private volatile long appliedSequence;
+    private volatile long appliedTimestamp;
+    private volatile long primarySequence;
+    private volatile long lastContact;
+    private volatile long failedEntries;
+
+    public ReplicaNode(String host, int port, String secret) {
+        if (host == null || host.trim().isEmpty()) {
+            throw new IllegalArgumentException("Primary host cannot be empty");
+        }
+        this.host = host.trim();
+        this.port = port;
+        this.auth = new ReplicationAuth(secret);
+        this.follower = Thread.ofPlatform().daemon().name("replica-follower").unstarted(this::followLoop);
+    }
+
+    public void start() {
+        started = true;
+        system.getPopularityRollup().start();
+        follower.start();
+    }
+
+    // Runs a query against the replicated state; writes must come from the log
+    public <T> T read(Function<StudentBookExchange, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(system);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // For front ends that guard the replicated system themselves. A rebuild
+    // swaps in a new system under the write lock, so fetch it under the lock
+    // on every request rather than keeping it.
+    public StudentBookExchange getSystem() {
+        return system;
+    }
+
+    // False while the replicated state is known to differ from the primary's
+    public boolean isHealthy() {
+        return !resyncing && !diverged;
+    }
+
+    public ReentrantReadWriteLock getLock() {
+        return lock;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    public long getPrimarySequence() {
+        return primarySequence;
+    }
+
+    public long getLagEntries() {
+        return Math.max(0, primarySequence - appliedSequence);
+    }
+
+    // How far the newest applied change trails the primary, measured on the
+    // primary's clock (replicas are expected to share a host or synced clocks)
+    public long getLagMillis() {
+        if (getLagEntries() == 0) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - appliedTimestamp);
+    }
+
+    public long getFailedEntries() {
+        return failedEntries;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("role", "replica");
+        status.put("primary", host + ":" + port);
+        status.put("connected", connected);
+        status.put("appliedSequence", appliedSequence);
+        status.put("primarySequence", primarySequence);
+        status.put("lagEntries", getLagEntries());
+        status.put("lagMillis", getLagMillis());
+        status.put("failedEntries", failedEntries);
+        status.put("healthy", isHealthy());
+        status.put("logId", logId);
+        status.put("rebuilds", rebuilds);
+        if (lastError != null) {
+            status.put("lastError", lastError);
+        }
+        status.put("millisSinceContact", lastContact > 0 ? System.currentTimeMillis() - lastContact : -1);
+        return status;
+    }
+
+    private void followLoop() {
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(new InetSocketAddress(host, port), READ_TIMEOUT_MILLIS);
+                connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+                connection.setTcpNoDelay(true);
+                Writer out = new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8);
+                BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                authenticate(in, out);
+                String following = logId;
+                out.write("FROM " + appliedSequence + " " + (following != null ? following : "-") + "\n");
+                out.flush();
+                connected = true;
+                String line;
+                while (running && (line = in.readLine()) != null) {
+                    lastContact = System.currentTimeMillis();
+                    if (line.startsWith("E ")) {
+                        applyEntry(MutationEntry.decode(line.substring(2)));
+                    } else if (line.startsWith("H ")) {
+                        String[] parts = line.split(" ");
+                        if (parts.length > 3 && !parts[3].equals(logId)) {
+                            // Reconnecting with the old ID makes the primary send RESET
+                            throw new IllegalStateException("Primary switched to log " + parts[3]);
+                        }
+                        primarySequence = Math.max(primarySequence, Long.parseLong(parts[1]));
+                    } else if (line.startsWith("RESET ")) {
+                        rebuild(line.substring("RESET ".length()).trim());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                if (running) {
+                    System.err.println("Replication stream from " + host + ":" + port + " interrupted: " + e.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+            if (diverged) {
+                System.err.println("Replica stopped following " + host + ":" + port + ": " + lastError);
+                return;
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Answers the primary's challenge and checks its answer to ours, so
+    // neither side talks to a peer without the secret
+    private void authenticate(BufferedReader in, Writer out) throws IOException {
+        String[] challenge = String.valueOf(in.readLine()).split(" ");
+        if (challenge.length != 2 || !challenge[0].equals("CHALLENGE")) {
+            throw new IOException("Expected a challenge from the primary");
+        }
+        String ours = ReplicationAuth.challenge();
+        out.write("AUTH " + ours + " " + auth.answer(ReplicationAuth.REPLICA, challenge[1]) + "\n");
+        out.flush();
+        String[] reply = String.valueOf(in.readLine()).split(" ");
+        if (reply.length == 1 && reply[0].equals("DENIED")) {
+            lastError = "Primary rejected the replication secret";
+            throw new IOException(lastError);
+        }
+        if (reply.length != 2 || !reply[0].equals("WELCOME") || !auth.verify(ReplicationAuth.PRIMARY, ours, reply[1])) {
+            lastError = "Primary at " + host + ":" + port + " failed authentication";
+            throw new IOException(lastError);
+        }
+    }
+
+    private void applyEntry(MutationEntry entry) {
+        if (entry.getSequence() <= appliedSequence) {
+            return;
+        }
+        if (entry.getSequence() != appliedSequence + 1) {
+            throw new IllegalStateException("Gap in replication log: expected " + (appliedSequence + 1) + " but got " + entry.getSequence());
+        }
+        lock.writeLock().lock();
+        try {
+            applier.apply(entry);
+        } catch (RuntimeException e) {
+            // The primary only logs mutations that succeeded, so the replica has
+            // diverged. Forgetting the log ID makes the next handshake rebuild
+            // from the start; failing on the same entry again means a rebuild
+            // cannot help, so the replica stops.
+            failedEntries++;
+            lastError = "Failed to apply " + entry + ": " + e.getMessage();
+            diverged = entry.getSequence() == lastFailedSequence;
+            lastFailedSequence = entry.getSequence();
+            resyncing = true;
+            logId = null;
+            throw new IllegalStateException(lastError);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        primarySequence = Math.max(primarySequence, entry.getSequence());
+        appliedTimestamp = entry.getTimestamp();
+        appliedSequence = entry.getSequence();
+    }
+
+    // Starts over from an empty system for the given log. Nothing is swapped
+    // when nothing has been applied yet, as on the first connection.
+    private void rebuild(String newLogId) {
+        lock.writeLock().lock();
+        try {
+            if (appliedSequence > 0 || resyncing) {
+                StudentBookExchange previous = system;
+                previous.getPopularityRollup().stop();
+                system = new StudentBookExchange();
+                applier = new MutationApplier(system);
+                if (started) {
+                    system.getPopularityRollup().start();
+                }
+                appliedSequence = 0;
+                appliedTimestamp = 0;
+                primarySequence = 0;
+                rebuilds++;
+                System.err.println("Rebuilding replica from log " + newLogId);
+            }
+            logId = newLogId;
+            resyncing = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        system.getPopularityRollup().stop();
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                System.err.println("Error closing replication connection: " + e.getMessage());
+            }
+        }
+        follower.interrupt();
+    }
+}
@@ -0,0 +1,160 @@
+package com.studentexchange.replication;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Ships the mutation log to replicas over TCP. A connection first runs the
+// ReplicationAuth handshake: the primary sends "CHALLENGE <nonce>", the
+// replica answers "AUTH <its own nonce> <answer>", and the primary replies
+// "WELCOME <answer>" or "DENIED" and hangs up. The replica then sends
+// "FROM <sequence> <log id>", and the primary streams every later entry as
+// "E <entry>" lines. If the replica names another log (or none), it
+// is told "RESET <log id>" and sent the whole log from the start.
+// "H <last sequence> <time> <log id>" heartbeats precede each batch and repeat
+// while idle, so replicas can measure their lag at any time.
+// The socket is bound to loopback only, since entries travel unencrypted and
+// carry users' personal details; replicas on other hosts reach it through a
+// tunnel.
+public class ReplicationPrimary implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7070;
+    private static final int BATCH_SIZE = 512;
+    private static final long HEARTBEAT_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(5);
+
+    private final MutationLog log;
+    private final ReplicationAuth auth;
+    private final ServerSocket serverSocket;
+    private final Set<Socket> replicas = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private volatile boolean running = true;
+
+    public ReplicationPrimary(MutationLog log, int port, String secret) throws IOException {
+        if (log == null) {
+            throw new IllegalArgumentException("Log cannot be null");
+        }
+        this.log = log;
+        this.auth = new ReplicationAuth(secret);
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.acceptor = Thread.ofPlatform().daemon().name("replication-accept").start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                replicas.add(socket);
+                Thread.ofPlatform().daemon().name("replication-ship-" + socket.getPort()).start(() -> ship(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting replica: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void ship(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            // Nothing is sent to a peer that has not proven it holds the secret
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            String challenge = ReplicationAuth.challenge();
+            out.write("CHALLENGE " + challenge);
+            out.newLine();
+            out.flush();
+            String[] reply = String.valueOf(in.readLine()).split(" ");
+            if (reply.length != 3 || !reply[0].equals("AUTH") || !auth.verify(ReplicationAuth.REPLICA, challenge, reply[2])) {
+                out.write("DENIED");
+                out.newLine();
+                out.flush();
+                throw new IOException("Rejected replica at " + socket.getRemoteSocketAddress() + ": failed authentication");
+            }
+            out.write("WELCOME " + auth.answer(ReplicationAuth.PRIMARY, reply[1]));
+            out.newLine();
+            out.flush();
+            String request = in.readLine();
+            if (request == null || !request.startsWith("FROM ")) {
+                throw new IOException("Expected FROM handshake but got " + request);
+            }
+            String[] handshake = request.substring("FROM ".length()).trim().split(" ");
+            long position = Long.parseLong(handshake[0]);
+            socket.setSoTimeout(0);
+            if (handshake.length < 2 || !handshake[1].equals(log.getLogId())) {
+                // The replica followed an earlier log (or none): it must rebuild
+                out.write("RESET " + log.getLogId());
+                out.newLine();
+                position = 0;
+            }
+            while (running) {
+                List<MutationEntry> batch = log.readAfter(position, BATCH_SIZE, HEARTBEAT_MILLIS);
+                // A heartbeat also leads every batch, so the replica knows the log head
+                out.write("H " + log.getLastSequence() + " " + System.currentTimeMillis() + " " + log.getLogId());
+                out.newLine();
+                if (!batch.isEmpty()) {
+                    for (MutationEntry entry : batch) {
+                        out.write("E ");
+                        out.write(entry.encode());
+                        out.newLine();
+                    }
+                    position = batch.get(batch.size() - 1).getSequence();
+                }
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // Replica went away; it resumes from its own position on reconnect
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error shipping to replica: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            replicas.remove(socket);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            System.err.println("Error closing replication socket: " + e.getMessage());
+        }
+        // The port is only released once the blocked accept returns, so a
+        // primary restarted in the same process can bind it again
+        try {
+            acceptor.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Socket socket : replicas) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                System.err.println("Error closing replica connection: " + e.getMessage());
+            }
+        }
+    }
+}
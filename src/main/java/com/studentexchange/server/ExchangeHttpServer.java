@@ -0,0 +1,642 @@
+package com.studentexchange.server;
+
+import com.studentexchange.enums.*;
+import com.studentexchange.models.*;
+import com.studentexchange.replication.MutationLog;
+import com.studentexchange.replication.ReplicaNode;
+import com.studentexchange.replication.ReplicationPrimary;
+import com.studentexchange.services.ArchiveStore;
+import com.studentexchange.services.ExchangeEngine;
+import com.studentexchange.services.ShippingSlaMonitor;
+import com.studentexchange.services.StudentBookExchange;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// Headless JSON/HTTP front end for StudentBookExchange on the JDK's built-in
+// HttpServer. Every request runs on its own virtual thread, so blocking calls
+// cost no platform thread. StudentBookExchange locks per user and item, so
+// requests that touch different rows run in parallel; a lock is only taken
+// here when one is shared with a replica applying its log.
+public class ExchangeHttpServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final long DEFAULT_SESSION_TTL_MILLIS = 30 * 60 * 1000L;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final long SESSION_SWEEP_MILLIS = 60 * 1000L;
+
+    private interface Handler {
+        Object handle(HttpExchange exchange) throws Exception;
+    }
+
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final Supplier<StudentBookExchange> systems;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    // Sessions expire after sessionTtlMillis without use
+    private record Session(User user, long expiresAt) {
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock stateLock;
+    private volatile long sessionTtlMillis = DEFAULT_SESSION_TTL_MILLIS;
+    private volatile long lastSessionSweep = System.currentTimeMillis();
+    private volatile boolean readOnly;
+    private volatile Supplier<Map<String, Object>> statusSupplier = () -> Map.of("role", "standalone");
+    private volatile BooleanSupplier healthCheck = () -> true;
+    // When set, writes are queued on the engine's single writer thread
+    private volatile ExchangeEngine engine;
+
+    public ExchangeHttpServer(StudentBookExchange system, int port) throws IOException {
+        this(system, port, null);
+    }
+
+    // Shares stateLock with anything else that touches the same system, such as
+    // a replica applying its log; null when this server is the only caller
+    public ExchangeHttpServer(StudentBookExchange system, int port, ReentrantReadWriteLock stateLock) throws IOException {
+        this(fixed(system), port, stateLock);
+    }
+
+    // For a replica, whose system is replaced when it rebuilds from the
+    // primary; systems is asked again, under stateLock, on every request
+    public ExchangeHttpServer(Supplier<StudentBookExchange> systems, int port, ReentrantReadWriteLock stateLock) throws IOException {
+        if (systems == null) {
+            throw new IllegalArgumentException("System cannot be null");
+        }
+        this.systems = systems;
+        this.stateLock = stateLock;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        route("/api/login", "POST", false, this::login);
+        route("/api/register", "POST", true, this::register);
+        route("/api/search", "GET", false, this::search);
+        route("/api/filter", "GET", false, this::filter);
+        route("/api/autocomplete", "GET", false, this::autocomplete);
+        route("/api/items", "POST", true, this::upload);
+        route("/api/purchase", "POST", true, this::purchase);
+        route("/api/transactions", "GET", false, this::transactions);
+        route("/api/status", "GET", false, exchange -> statusSupplier.get());
+    }
+
+    // A read-only server rejects every mutating endpoint, as replicas must
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    public void setSessionTtlMillis(long sessionTtlMillis) {
+        if (sessionTtlMillis <= 0) {
+            throw new IllegalArgumentException("Session TTL must be positive");
+        }
+        this.sessionTtlMillis = sessionTtlMillis;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public void setEngine(ExchangeEngine engine) {
+        this.engine = engine;
+    }
+
+    public void setStatusSupplier(Supplier<Map<String, Object>> statusSupplier) {
+        if (statusSupplier == null) {
+            throw new IllegalArgumentException("Status supplier cannot be null");
+        }
+        this.statusSupplier = statusSupplier;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    // Requests other than /api/status get a 503 while this reports false
+    public void setHealthCheck(BooleanSupplier healthCheck) {
+        if (healthCheck == null) {
+            throw new IllegalArgumentException("Health check cannot be null");
+        }
+        this.healthCheck = healthCheck;
+    }
+
+    public StudentBookExchange getSystem() {
+        return systems.get();
+    }
+
+    private static Supplier<StudentBookExchange> fixed(StudentBookExchange system) {
+        if (system == null) {
+            throw new IllegalArgumentException("System cannot be null");
+        }
+        return () -> system;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void route(String path, String method, boolean mutates, Handler handler) {
+        server.createContext(path, exchange -> {
+            int status = 200;
+            Object body;
+            try {
+                if (!method.equals(exchange.getRequestMethod())) {
+                    throw new ApiException(405, "Method not allowed");
+                }
+                if (mutates && readOnly) {
+                    throw new ApiException(503, "This node is a read-only replica; send writes to the primary");
+                }
+                if (!path.equals("/api/status") && !healthCheck.getAsBoolean()) {
+                    throw new ApiException(503, "This node is out of sync with the primary; see /api/status");
+                }
+                if (stateLock == null) {
+                    body = handler.handle(exchange);
+                } else {
+                    var lock = mutates ? stateLock.writeLock() : stateLock.readLock();
+                    lock.lock();
+                    try {
+                        body = handler.handle(exchange);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            } catch (ApiException e) {
+                status = e.status;
+                body = error(e.getMessage());
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                status = 400;
+                body = error(e.getMessage());
+            } catch (RuntimeException e) {
+                status = 422;
+                body = error(e.getMessage());
+            } catch (Exception e) {
+                status = 500;
+                body = error("Internal error: " + e.getMessage());
+            }
+            byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+    }
+
+    private Object login(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        User user = getSystem().login(requireString(body, "email"), requireString(body, "password"));
+        if (user == null) {
+            throw new ApiException(401, "Invalid email or password");
+        }
+        String token = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        sweepSessions(now);
+        sessions.put(token, new Session(user, now + sessionTtlMillis));
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("token", token);
+        response.put("user", userJson(user));
+        return response;
+    }
+
+    private Object register(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String name = requireString(body, "name");
+        String cnic = requireString(body, "cnic");
+        String email = requireString(body, "email");
+        String password = requireString(body, "password");
+        String phone = requireString(body, "phone");
+        String address = requireString(body, "address");
+        ExchangeEngine writer = engine;
+        User user = writer != null
+                ? await(writer.registerUser(name, cnic, email, password, phone, address))
+                : getSystem().registerUser(name, cnic, email, password, phone, address);
+        return userJson(user);
+    }
+
+    private Object search(HttpExchange exchange) {
+        Map<String, String> query = readQuery(exchange);
+        String q = query.getOrDefault("q", "");
+        int k = parseInt(query.get("k"), 20);
+        boolean fuzzy = Boolean.parseBoolean(query.get("fuzzy"));
+        List<Item> items = fuzzy ? getSystem().searchFuzzy(q, k) : getSystem().searchRanked(q, k);
+        return itemsJson(items);
+    }
+
+    private Object filter(HttpExchange exchange) {
+        Map<String, String> query = readQuery(exchange);
+        List<Item> items = getSystem().getCatalog().filterItems(
+                parseEnum(Category.class, query.get("category")),
+                parseEnum(GradeLevel.class, query.get("grade")),
+                parseFloat(query.get("minPrice")),
+                parseFloat(query.get("maxPrice")),
+                query.get("subject"),
+                parseEnum(Condition.class, query.get("condition")));
+        return itemsJson(items);
+    }
+
+    private Object autocomplete(HttpExchange exchange) {
+        Map<String, String> query = readQuery(exchange);
+        return getSystem().autocomplete(query.getOrDefault("q", ""), parseInt(query.get("limit"), 8));
+    }
+
+    private Object upload(HttpExchange exchange) throws IOException {
+        User user = authenticate(exchange);
+        Map<String, Object> body = readBody(exchange);
+        String title = requireString(body, "title");
+        String description = optionalString(body, "description", "");
+        Category category = requireEnum(Category.class, body, "category");
+        GradeLevel grade = requireEnum(GradeLevel.class, body, "grade");
+        String subject = requireString(body, "subject");
+        Condition condition = requireEnum(Condition.class, body, "condition");
+        float marketPrice = (float) requireNumber(body, "marketPrice");
+        float price = (float) requireNumber(body, "price");
+        String author = requireString(body, "author");
+        String edition = optionalString(body, "edition", "1st Edition");
+        String publisher = requireString(body, "publisher");
+        int pages = (int) requireNumber(body, "pages");
+        boolean hardcover = Boolean.TRUE.equals(body.get("hardcover"));
+        ExchangeEngine writer = engine;
+        Book book = writer != null
+                ? await(writer.uploadBook(user, title, description, category, grade, subject, condition,
+                        marketPrice, price, author, edition, publisher, pages, hardcover))
+                : getSystem().uploadBook(user, title, description, category, grade, subject, condition,
+                        marketPrice, price, author, edition, publisher, pages, hardcover);
+        return itemJson(book);
+    }
+
+    private Object purchase(HttpExchange exchange) throws IOException {
+        User user = authenticate(exchange);
+        Map<String, Object> body = readBody(exchange);
+        Item item = getSystem().getCatalog().getItemById(requireString(body, "itemId"));
+        if (item == null) {
+            throw new ApiException(404, "Item not found");
+        }
+        PaymentMethod method = requireEnum(PaymentMethod.class, body, "paymentMethod");
+        String idempotencyKey = optionalString(body, "idempotencyKey", null);
+        ExchangeEngine writer = engine;
+        Transaction transaction = writer != null
+                ? await(writer.purchase(user, item, method, idempotencyKey))
+                : getSystem().createTransaction(user, item, method, idempotencyKey);
+        return transactionJson(transaction);
+    }
+
+    // Waits for a queued command and rethrows its failure unwrapped, so it maps
+    // to the same status as the direct call would
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Live transactions first, then those moved to the archive, which are no
+    // longer held by the user
+    private Object transactions(HttpExchange exchange) {
+        User user = authenticate(exchange);
+        Map<String, Object> response = new LinkedHashMap<>();
+        List<Object> bought = new ArrayList<>();
+        for (Transaction transaction : user.getTransactionsAsBuyer()) {
+            bought.add(transactionJson(transaction));
+        }
+        List<Object> sold = new ArrayList<>();
+        for (Transaction transaction : user.getTransactionsAsSeller()) {
+            sold.add(transactionJson(transaction));
+        }
+        for (ArchivedTransaction archived : getSystem().getArchivedTransactions(user)) {
+            if (archived.getBuyer_id().equals(user.getUser_id())) {
+                bought.add(archivedJson(archived));
+            }
+            if (archived.getSeller_id().equals(user.getUser_id())) {
+                sold.add(archivedJson(archived));
+            }
+        }
+        response.put("purchases", bought);
+        response.put("sales", sold);
+        return response;
+    }
+
+    private User authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new ApiException(401, "Missing bearer token");
+        }
+        String token = header.substring("Bearer ".length()).trim();
+        long now = System.currentTimeMillis();
+        Session session = sessions.get(token);
+        // A replica that rebuilt its state no longer knows the session's user
+        if (session == null || session.expiresAt() <= now || getSystem().getUser(session.user().getUser_id()) != session.user()) {
+            if (session != null) {
+                sessions.remove(token, session);
+            }
+            throw new ApiException(401, "Invalid or expired session");
+        }
+        // Sliding expiry: each use extends the session
+        sessions.replace(token, session, new Session(session.user(), now + sessionTtlMillis));
+        return session.user();
+    }
+
+    // Drops expired sessions at most once a minute, so tokens that are never
+    // used again do not pile up
+    private void sweepSessions(long now) {
+        if (now - lastSessionSweep < SESSION_SWEEP_MILLIS) {
+            return;
+        }
+        lastSessionSweep = now;
+        sessions.values().removeIf(session -> session.expiresAt() <= now);
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> readQuery(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static String requireString(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        if (!(value instanceof String) || ((String) value).trim().isEmpty()) {
+            throw new IllegalArgumentException("Field '" + key + "' is required");
+        }
+        return (String) value;
+    }
+
+    private static String optionalString(Map<String, Object> body, String key, String fallback) {
+        Object value = body.get(key);
+        return value instanceof String ? (String) value : fallback;
+    }
+
+    private static double requireNumber(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        if (!(value instanceof Double)) {
+            throw new IllegalArgumentException("Field '" + key + "' must be a number");
+        }
+        return (Double) value;
+    }
+
+    private static <E extends Enum<E>> E requireEnum(Class<E> type, Map<String, Object> body, String key) {
+        E value = parseEnum(type, optionalString(body, key, null));
+        if (value == null) {
+            throw new IllegalArgumentException("Field '" + key + "' must be one of " + Arrays.toString(type.getEnumConstants()));
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+
+    private static Float parseFloat(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null || value.trim().isEmpty()) {
+            return fallback;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed <= 0 || parsed > 200) {
+                throw new IllegalArgumentException("Count must be between 1 and 200");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message != null ? message : "Unknown error");
+        return body;
+    }
+
+    private static Map<String, Object> userJson(User user) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", user.getUser_id());
+        json.put("name", user.getName());
+        json.put("email", user.getEmail());
+        json.put("creditPoints", user.getCredit_points());
+        json.put("rating", user.getAverage_rating());
+        return json;
+    }
+
+    private static List<Object> itemsJson(List<Item> items) {
+        List<Object> json = new ArrayList<>(items.size());
+        for (Item item : items) {
+            json.add(itemJson(item));
+        }
+        return json;
+    }
+
+    private static Map<String, Object> itemJson(Item item) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", item.getItem_id());
+        json.put("title", item.getTitle());
+        json.put("subject", item.getSubject());
+        json.put("category", item.getCategory());
+        json.put("grade", item.getGrade());
+        json.put("uploader", item.getUploader().getName());
+        json.put("views", item.getTotal_views());
+        if (item instanceof ForSaleItem) {
+            ForSaleItem forSale = (ForSaleItem) item;
+            json.put("price", forSale.getPrice());
+            json.put("condition", forSale.getCondition());
+            json.put("sold", forSale.isIs_sold());
+        }
+        if (item instanceof Book) {
+            json.put("author", ((Book) item).getAuthor());
+        }
+        return json;
+    }
+
+    private static Map<String, Object> transactionJson(Transaction transaction) {
+        TransactionStatus status = transaction.getTransactionStatus();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", status.getTransaction_id());
+        json.put("itemId", transaction.getItem().getItem_id());
+        json.put("itemTitle", transaction.getItem().getTitle());
+        json.put("paymentStatus", status.getPayment_status());
+        json.put("shippingStatus", status.getShipping_status());
+        json.put("paymentMethod", status.getPayment_method());
+        json.put("creditsUsed", status.getCredits_used());
+        json.put("total", status.getTotal_amount());
+        json.put("date", status.getTransaction_time());
+        return json;
+    }
+
+    // Same shape as a live transaction; only delivered, paid ones are archived
+    private static Map<String, Object> archivedJson(ArchivedTransaction archived) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", archived.getTransaction_id());
+        json.put("itemId", archived.getItem_id());
+        json.put("itemTitle", archived.getItem_title());
+        json.put("paymentStatus", PaymentStatus.COMPLETED);
+        json.put("shippingStatus", ShippingStatus.DELIVERED);
+        json.put("paymentMethod", archived.getPayment_method());
+        json.put("creditsUsed", archived.getCredits_used());
+        json.put("total", archived.getTotal_amount());
+        json.put("date", archived.getTransaction_time());
+        json.put("archived", true);
+        return json;
+    }
+
+    // Headless entry point: serves the API without starting the JavaFX front end.
+    // Options: --server=PORT, --replicate=PORT (act as primary and ship the
+    // mutation log on PORT), --replica-of=HOST:PORT (follow a primary and
+    // serve reads only), --archive=DIR[,DAYS] (move transactions delivered
+    // more than DAYS ago into DIR every hour) and --single-writer (apply
+    // registrations, uploads and purchases on one writer thread); the last two
+    // apply to a primary or standalone node only. Replication needs the shared
+    // secret in the EXCHANGE_REPLICATION_SECRET environment variable on both
+    // ends; it is not taken as an option so it stays out of process listings.
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        Integer replicationPort = null;
+        String primary = null;
+        String archive = null;
+        boolean singleWriter = false;
+        for (String arg : args) {
+            if (arg.startsWith("--server=")) {
+                port = Integer.parseInt(arg.substring("--server=".length()));
+            } else if (arg.equals("--replicate")) {
+                replicationPort = ReplicationPrimary.DEFAULT_PORT;
+            } else if (arg.startsWith("--replicate=")) {
+                replicationPort = Integer.parseInt(arg.substring("--replicate=".length()));
+            } else if (arg.startsWith("--replica-of=")) {
+                primary = arg.substring("--replica-of=".length());
+            } else if (arg.startsWith("--archive=")) {
+                archive = arg.substring("--archive=".length());
+            } else if (arg.equals("--single-writer")) {
+                singleWriter = true;
+            } else if (arg.matches("\\d+")) {
+                port = Integer.parseInt(arg);
+            }
+        }
+        if (primary != null && replicationPort != null) {
+            throw new IllegalArgumentException("A node cannot be both primary and replica");
+        }
+        if (primary != null && archive != null) {
+            // A replica archives when it applies the primary's ARCHIVE entries
+            throw new IllegalArgumentException("Only the primary can archive transactions");
+        }
+        if (primary != null && singleWriter) {
+            throw new IllegalArgumentException("A replica takes no writes to queue");
+        }
+        String secret = System.getenv("EXCHANGE_REPLICATION_SECRET");
+        if ((primary != null || replicationPort != null) && (secret == null || secret.isEmpty())) {
+            throw new IllegalArgumentException("Set EXCHANGE_REPLICATION_SECRET to replicate");
+        }
+
+        ExchangeHttpServer server;
+        if (primary != null) {
+            int colon = primary.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Primary must be given as host:port");
+            }
+            ReplicaNode replica = new ReplicaNode(primary.substring(0, colon), Integer.parseInt(primary.substring(colon + 1)), secret);
+            server = new ExchangeHttpServer(replica::getSystem, port, replica.getLock());
+            server.setReadOnly(true);
+            server.setStatusSupplier(replica::getStatus);
+            server.setHealthCheck(replica::isHealthy);
+            replica.start();
+        } else {
+            StudentBookExchange system = new StudentBookExchange();
+            server = new ExchangeHttpServer(system, port);
+            // Replicas get the same transactions from the primary, which alone reports missed deadlines
+            system.getShippingSlaMonitor().addListener(ShippingSlaMonitor.logTo(System.out));
+            system.getShippingSlaMonitor().start();
+            system.getPopularityRollup().start();
+            if (singleWriter) {
+                server.setEngine(new ExchangeEngine(system));
+            }
+            if (archive != null) {
+                int comma = archive.lastIndexOf(',');
+                String directory = comma < 0 ? archive : archive.substring(0, comma);
+                long days = comma < 0 ? StudentBookExchange.DEFAULT_ARCHIVE_AGE_DAYS : Long.parseLong(archive.substring(comma + 1));
+                system.enableArchive(new ArchiveStore(Paths.get(directory)), days, TimeUnit.DAYS);
+                system.startArchiving();
+                System.out.println("Archiving transactions delivered over " + days + " days ago to " + directory);
+            }
+            if (replicationPort != null) {
+                MutationLog log = new MutationLog();
+                system.addMutationListener(log);
+                ReplicationPrimary shipper = new ReplicationPrimary(log, replicationPort, secret);
+                server.setStatusSupplier(() -> {
+                    Map<String, Object> status = new LinkedHashMap<>();
+                    status.put("role", "primary");
+                    status.put("logId", log.getLogId());
+                    status.put("logSequence", log.getLastSequence());
+                    status.put("replicas", shipper.getReplicaCount());
+                    return status;
+                });
+                System.out.println("Shipping mutation log on port " + shipper.getPort());
+            }
+        }
+        server.start();
+        System.out.println("Student exchange API listening on port " + server.getPort());
+    }
+}
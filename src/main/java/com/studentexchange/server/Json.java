@@ -0,0 +1,228 @@
+package com.studentexchange.server;
+
+import java.util.*;
+
+// Minimal JSON support for the HTTP API: a writer for the response shapes we
+// produce and a parser for flat request objects (strings, numbers, booleans, null).
+public final class Json {
+    private Json() { }
+
+    public static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder builder = new StringBuilder(value.length() + 2);
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    // Writes maps, collections, strings, numbers, booleans and enums; anything else via toString
+    public static String write(Object value) {
+        StringBuilder builder = new StringBuilder();
+        write(builder, value);
+        return builder.toString();
+    }
+
+    private static void write(StringBuilder builder, Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof Map) {
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                builder.append(quote(String.valueOf(entry.getKey()))).append(':');
+                write(builder, entry.getValue());
+            }
+            builder.append('}');
+        } else if (value instanceof Collection) {
+            builder.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                write(builder, element);
+            }
+            builder.append(']');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            builder.append(value);
+        } else if (value instanceof Enum) {
+            builder.append(quote(((Enum<?>) value).name()));
+        } else {
+            builder.append(quote(value.toString()));
+        }
+    }
+
+    public static Map<String, Object> parseObject(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        Parser parser = new Parser(text);
+        Map<String, Object> result = parser.readObject();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw new IllegalArgumentException("Unexpected trailing content in JSON");
+        }
+        return result;
+    }
+
+    private static class Parser {
+        final String text;
+        int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> readObject() {
+            expect('{');
+            Map<String, Object> result = new LinkedHashMap<>();
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                result.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw new IllegalArgumentException("Expected ',' or '}' at position " + (position - 1));
+                }
+            }
+        }
+
+        Object readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (text.startsWith("true", position)) {
+                position += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", position)) {
+                position += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", position)) {
+                position += 4;
+                return null;
+            }
+            int start = position;
+            while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+                position++;
+            }
+            if (start == position) {
+                throw new IllegalArgumentException("Unsupported JSON value at position " + start);
+            }
+            return Double.parseDouble(text.substring(start, position));
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder builder = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c == '\\') {
+                    char escaped = next();
+                    switch (escaped) {
+                        case 'n':
+                            builder.append('\n');
+                            break;
+                        case 'r':
+                            builder.append('\r');
+                            break;
+                        case 't':
+                            builder.append('\t');
+                            break;
+                        case 'b':
+                            builder.append('\b');
+                            break;
+                        case 'f':
+                            builder.append('\f');
+                            break;
+                        case 'u':
+                            if (position + 4 > text.length()) {
+                                throw new IllegalArgumentException("Truncated unicode escape");
+                            }
+                            builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                            position += 4;
+                            break;
+                        default:
+                            builder.append(escaped);
+                    }
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+
+        void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        void expect(char expected) {
+            if (next() != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at position " + (position - 1));
+            }
+        }
+
+        char peek() {
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("Unexpected end of JSON");
+            }
+            return text.charAt(position);
+        }
+
+        char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+    }
+}
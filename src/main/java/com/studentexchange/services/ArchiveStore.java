@@ -0,0 +1,194 @@
+package com.studentexchange.services;
+
+import com.studentexchange.models.ArchivedTransaction;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Cold tier for delivered transactions. Each archival run writes one segment:
+// a data file of compact binary records and a small index file mapping
+// transaction, item and user IDs to record offsets. The index files are only
+// read on the first lookup; records are then fetched one at a time by seeking.
+public class ArchiveStore {
+    private static final int SEGMENT_MAGIC = 0x53454731;
+    private static final int INDEX_MAGIC = 0x53494431;
+    private static final String DATA_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private static class Location {
+        final int segment;
+        final long offset;
+
+        Location(int segment, long offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+
+    private final Path directory;
+    private int nextSegment;
+    private boolean indexLoaded;
+    private final Map<String, Location> byTransaction = new HashMap<>();
+    private final Map<String, Location> byItem = new HashMap<>();
+    private final Map<String, List<Location>> byUser = new HashMap<>();
+
+    public ArchiveStore(Path directory) {
+        try {
+            if (directory == null) {
+                throw new IllegalArgumentException("Archive directory cannot be null");
+            }
+            this.directory = Files.createDirectories(directory);
+            // Only file names are read here; the index itself stays on disk until needed
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*" + INDEX_SUFFIX)) {
+                for (Path file : files) {
+                    nextSegment = Math.max(nextSegment, segmentNumber(file) + 1);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open archive: " + e.getMessage());
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized int getSegmentCount() {
+        return nextSegment;
+    }
+
+    public synchronized boolean isIndexLoaded() {
+        return indexLoaded;
+    }
+
+    // The index file is written last and moved into place atomically, so a
+    // segment without one was never completed and is ignored
+    public synchronized void append(List<ArchivedTransaction> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        int segment = nextSegment;
+        long[] offsets = new long[records.size()];
+        try {
+            Path data = segmentFile(segment, DATA_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(data)))) {
+                out.writeInt(SEGMENT_MAGIC);
+                out.writeInt(records.size());
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+                DataOutputStream record = new DataOutputStream(buffer);
+                for (int i = 0; i < records.size(); i++) {
+                    buffer.reset();
+                    records.get(i).writeTo(record);
+                    offsets[i] = out.size();
+                    out.writeInt(buffer.size());
+                    buffer.writeTo(out);
+                }
+            }
+            Path index = segmentFile(segment, INDEX_SUFFIX);
+            Path temp = index.resolveSibling(index.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(records.size());
+                for (int i = 0; i < records.size(); i++) {
+                    ArchivedTransaction record = records.get(i);
+                    out.writeUTF(record.getTransaction_id());
+                    out.writeUTF(record.getItem_id());
+                    out.writeUTF(record.getBuyer_id());
+                    out.writeUTF(record.getSeller_id());
+                    out.writeLong(offsets[i]);
+                }
+            }
+            Files.move(temp, index, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write archive segment: " + e.getMessage());
+        }
+        nextSegment++;
+        if (indexLoaded) {
+            for (int i = 0; i < records.size(); i++) {
+                ArchivedTransaction record = records.get(i);
+                addToIndex(record.getTransaction_id(), record.getItem_id(), record.getBuyer_id(), record.getSeller_id(), new Location(segment, offsets[i]));
+            }
+        }
+    }
+
+    public synchronized ArchivedTransaction findByTransactionId(String transactionId) {
+        ensureIndex();
+        Location location = byTransaction.get(transactionId);
+        return location != null ? read(location) : null;
+    }
+
+    public synchronized ArchivedTransaction findByItemId(String itemId) {
+        ensureIndex();
+        Location location = byItem.get(itemId);
+        return location != null ? read(location) : null;
+    }
+
+    // Every archived transaction the user bought or sold in, oldest segment first
+    public synchronized List<ArchivedTransaction> findByUser(String userId) {
+        ensureIndex();
+        List<ArchivedTransaction> records = new ArrayList<>();
+        for (Location location : byUser.getOrDefault(userId, List.of())) {
+            records.add(read(location));
+        }
+        return records;
+    }
+
+    public synchronized int size() {
+        ensureIndex();
+        return byTransaction.size();
+    }
+
+    private void ensureIndex() {
+        if (indexLoaded) {
+            return;
+        }
+        for (int segment = 0; segment < nextSegment; segment++) {
+            Path index = segmentFile(segment, INDEX_SUFFIX);
+            if (!Files.exists(index)) {
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+                if (in.readInt() != INDEX_MAGIC) {
+                    throw new IOException("Bad index header in " + index.getFileName());
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    addToIndex(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), new Location(segment, in.readLong()));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load archive index: " + e.getMessage());
+            }
+        }
+        indexLoaded = true;
+    }
+
+    private void addToIndex(String transactionId, String itemId, String buyerId, String sellerId, Location location) {
+        byTransaction.put(transactionId, location);
+        byItem.put(itemId, location);
+        byUser.computeIfAbsent(buyerId, k -> new ArrayList<>()).add(location);
+        if (!sellerId.equals(buyerId)) {
+            byUser.computeIfAbsent(sellerId, k -> new ArrayList<>()).add(location);
+        }
+    }
+
+    private ArchivedTransaction read(Location location) {
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(location.segment, DATA_SUFFIX).toFile(), "r")) {
+            // Records are length-prefixed so each lookup is a single positioned read
+            file.seek(location.offset);
+            byte[] bytes = new byte[file.readInt()];
+            file.readFully(bytes);
+            return ArchivedTransaction.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read archived record: " + e.getMessage());
+        }
+    }
+
+    private Path segmentFile(int segment, String suffix) {
+        return directory.resolve(String.format("segment-%06d%s", segment, suffix));
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("segment-".length(), name.length() - INDEX_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,198 @@
+package com.studentexchange.services;
+
+import com.studentexchange.enums.*;
+import com.studentexchange.models.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Non-blocking facade over StudentBookExchange. Every call is dispatched onto
+// the configured executor and returns a CompletableFuture, so callers can run
+// independent lookups in parallel and compose the results. No lock is taken
+// here: StudentBookExchange locks per user and item, so mutations on
+// unrelated rows proceed in parallel.
+public class AsyncExchange implements AutoCloseable {
+    private final StudentBookExchange system;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    public AsyncExchange(StudentBookExchange system) {
+        this(system, Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    public AsyncExchange(StudentBookExchange system, Executor executor) {
+        this(system, executor, false);
+    }
+
+    private AsyncExchange(StudentBookExchange system, Executor executor, boolean owned) {
+        if (system == null) {
+            throw new IllegalArgumentException("System cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.system = system;
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+    }
+
+    public StudentBookExchange getSystem() {
+        return system;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    // Generic entry points for operations not covered by a dedicated method
+    public <T> CompletableFuture<T> read(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    public <T> CompletableFuture<T> write(Supplier<T> command) {
+        return CompletableFuture.supplyAsync(command, executor);
+    }
+
+    // The message of the error behind a failed future, for showing to the user
+    public static String messageOf(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage();
+    }
+
+    public CompletableFuture<User> loginAsync(String email, String password) {
+        return read(() -> system.login(email, password));
+    }
+
+    public CompletableFuture<User> registerUserAsync(String name, String cnic, String email, String password, String phone, String address) {
+        return write(() -> system.registerUser(name, cnic, email, password, phone, address));
+    }
+
+    public CompletableFuture<Void> updateProfileAsync(User user, String name, String email, String phone, String address) {
+        return write(() -> {
+            system.updateProfile(user, name, email, phone, address);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<ArchivedTransaction>> getArchivedTransactionsAsync(User user) {
+        return read(() -> system.getArchivedTransactions(user));
+    }
+
+    public CompletableFuture<Book> uploadBookAsync(User uploader, String title, String description, Category category, GradeLevel grade, String subject, Condition condition, float market_price, float price, String author, String edition, String publisher, int pages, boolean is_hardcover) {
+        return write(() -> system.uploadBook(uploader, title, description, category, grade, subject, condition,
+                market_price, price, author, edition, publisher, pages, is_hardcover));
+    }
+
+    public CompletableFuture<Transaction> createTransactionAsync(User buyer, Item item, PaymentMethod method) {
+        return write(() -> system.createTransaction(buyer, item, method));
+    }
+
+    public CompletableFuture<Transaction> createTransactionAsync(User buyer, Item item, PaymentMethod method, String idempotencyKey) {
+        return write(() -> system.createTransaction(buyer, item, method, idempotencyKey));
+    }
+
+    public CompletableFuture<TransactionGroup> checkoutAsync(User buyer, List<Item> basket, PaymentMethod method, int creditsToUse) {
+        List<Item> snapshot = new ArrayList<>(basket);
+        return write(() -> system.checkout(buyer, snapshot, method, creditsToUse));
+    }
+
+    public CompletableFuture<Void> updateShippingStatusAsync(Transaction transaction, ShippingStatus status) {
+        return write(() -> {
+            system.updateShippingStatus(transaction, status);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Review> submitReviewAsync(User reviewer, User reviewed, Transaction transaction, int rating, String comment) {
+        return write(() -> system.submitReview(reviewer, reviewed, transaction, rating, comment));
+    }
+
+    public CompletableFuture<Void> recordSuggestionPickedAsync(String phrase) {
+        return write(() -> {
+            system.recordSuggestionPicked(phrase);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> viewItemAsync(Item item) {
+        return write(() -> {
+            system.viewItem(item);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Item>> searchAsync(String keyword) {
+        return read(() -> system.search(keyword));
+    }
+
+    public CompletableFuture<List<Item>> searchRankedAsync(String query, int k) {
+        return read(() -> system.searchRanked(query, k));
+    }
+
+    public CompletableFuture<List<Item>> searchFuzzyAsync(String query, int k) {
+        return read(() -> system.searchFuzzy(query, k));
+    }
+
+    // Ranked search that falls back to typo-tolerant matching when nothing ranks
+    public CompletableFuture<List<Item>> searchWithFallbackAsync(String query, int k) {
+        return searchRankedAsync(query, k).thenCompose(items ->
+                items.isEmpty() ? searchFuzzyAsync(query, k) : CompletableFuture.completedFuture(items));
+    }
+
+    public CompletableFuture<List<Item>> searchItemsAsync(String keyword, Category category, GradeLevel grade, float minPrice, float maxPrice, String subject, Condition condition) {
+        return read(() -> system.searchItems(keyword, category, grade, minPrice, maxPrice, subject, condition));
+    }
+
+    public CompletableFuture<List<String>> autocompleteAsync(String prefix, int limit) {
+        return read(() -> system.autocomplete(prefix, limit));
+    }
+
+    public CompletableFuture<FacetCounts> getFacetsAsync(String keyword, Category category, GradeLevel grade, Float minPrice, Float maxPrice, String subject, Condition condition) {
+        return read(() -> system.getFacets(keyword, category, grade, minPrice, maxPrice, subject, condition));
+    }
+
+    public CompletableFuture<FacetCounts> getRankedFacetsAsync(String query) {
+        return read(() -> system.getRankedFacets(query));
+    }
+
+    // Facets matching searchWithFallbackAsync for the same query
+    public CompletableFuture<FacetCounts> getRankedFacetsWithFallbackAsync(String query) {
+        return read(() -> system.getRankedFacetsWithFallback(query));
+    }
+
+    public CompletableFuture<List<Item>> getItemsAsync() {
+        return read(() -> system.getCatalog().getItems());
+    }
+
+    public CompletableFuture<List<Item>> getAvailableItemsAsync() {
+        return read(() -> system.getCatalog().getAvailableItems());
+    }
+
+    public CompletableFuture<List<Item>> getUploadsAsync(User user) {
+        return read(() -> system.getCatalog().getItemsBySeller(user));
+    }
+
+    public CompletableFuture<List<Transaction>> getPurchasesAsync(User user) {
+        return read(() -> new ArrayList<>(user.getTransactionsAsBuyer()));
+    }
+
+    public CompletableFuture<List<Transaction>> getSalesAsync(User user) {
+        return read(() -> new ArrayList<>(user.getTransactionsAsSeller()));
+    }
+
+    public CompletableFuture<RatingSummary> getRatingSummaryAsync(User user) {
+        return read(() -> system.getReviewStore().getSummary(user));
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.studentexchange.services;
+
+import com.studentexchange.models.Book;
+import com.studentexchange.models.FreeResource;
+import com.studentexchange.models.Item;
+import com.studentexchange.models.PastPaper;
+import java.util.*;
+
+// Prefix completion over catalog phrases (titles, subjects, authors, subject
+// and course codes). Each trie node caches its N most popular completions, so
+// a keystroke costs one walk down the prefix and a copy of at most N entries.
+// A phrase is reachable from the start of every word in it, so "mech" also
+// completes "Classical Mechanics". A phrase gains weight in place along its
+// paths. When an item is edited or removed, the phrases it contributed lose
+// weight; the cached lists on those paths are rebuilt from the nodes below,
+// and a phrase left with no weight is dropped from the trie.
+public class AutocompleteIndex {
+    private static final int DEFAULT_TOP_N = 8;
+
+    private static class Completion {
+        final String phrase;
+        long weight;
+
+        Completion(String phrase) {
+            this.phrase = phrase;
+        }
+    }
+
+    private static class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        Completion[] top = new Completion[0];
+        // Completions whose phrase, read from one of its word starts, ends here
+        Completion[] ending = new Completion[0];
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = new Node();
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return children.length == 0 && ending.length == 0;
+        }
+
+        // Called after a completion below this node lost weight or was dropped.
+        // Anything in this node's top N is in the top N of the child it came
+        // from, so the children's lists and the completions ending here suffice.
+        void recompute(int limit) {
+            List<Completion> candidates = new ArrayList<>(Arrays.asList(ending));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort((a, b) -> Long.compare(b.weight, a.weight));
+            List<Completion> best = new ArrayList<>(limit);
+            for (Completion candidate : candidates) {
+                if (best.size() == limit) {
+                    break;
+                }
+                // A phrase repeating a word reaches some nodes along two paths
+                if (!best.contains(candidate)) {
+                    best.add(candidate);
+                }
+            }
+            top = best.toArray(new Completion[0]);
+        }
+
+        // Called after completion's weight went up
+        void offer(Completion completion, int limit) {
+            int index = -1;
+            for (int i = 0; i < top.length; i++) {
+                if (top[i] == completion) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                if (top.length == limit) {
+                    if (top[limit - 1].weight >= completion.weight) {
+                        return;
+                    }
+                    index = limit - 1;
+                } else {
+                    top = Arrays.copyOf(top, top.length + 1);
+                    index = top.length - 1;
+                }
+                top[index] = completion;
+            }
+            while (index > 0 && top[index - 1].weight < completion.weight) {
+                top[index] = top[index - 1];
+                top[index - 1] = completion;
+                index--;
+            }
+        }
+    }
+
+    private final int topN;
+    private final Node root = new Node();
+    private final Map<String, Completion> completions = new HashMap<>();
+    // Phrases each item contributed, so an edit or removal can take them back
+    private final Map<String, List<String>> itemPhrases = new HashMap<>();
+
+    public AutocompleteIndex() {
+        this(DEFAULT_TOP_N);
+    }
+
+    public AutocompleteIndex(int topN) {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("Completion count must be positive");
+        }
+        this.topN = topN;
+    }
+
+    // Indexes a new item's phrases; for an item already indexed this is update
+    public void add(Item item) {
+        update(item);
+    }
+
+    // Applies only the phrases an edit changed, so an edit that leaves the
+    // title, subject, author and codes alone changes no weights
+    public synchronized void update(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        List<String> added = phrasesOf(item);
+        List<String> previous = itemPhrases.put(item.getItem_id(), new ArrayList<>(added));
+        if (previous != null) {
+            for (String phrase : previous) {
+                if (!added.remove(phrase)) {
+                    lower(phrase, 1);
+                }
+            }
+        }
+        for (String phrase : added) {
+            addPhrase(phrase, 1);
+        }
+    }
+
+    // Takes back the phrases of an item that left the catalog
+    public synchronized void remove(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        List<String> previous = itemPhrases.remove(item.getItem_id());
+        if (previous != null) {
+            for (String phrase : previous) {
+                lower(phrase, 1);
+            }
+        }
+    }
+
+    private static List<String> phrasesOf(Item item) {
+        List<String> phrases = new ArrayList<>();
+        addKey(phrases, item.getTitle());
+        addKey(phrases, item.getSubject());
+        try {
+            if (item instanceof Book) {
+                addKey(phrases, ((Book) item).getAuthor());
+            }
+            if (item instanceof PastPaper) {
+                addKey(phrases, ((PastPaper) item).getSubject_code());
+            }
+            if (item instanceof FreeResource) {
+                addKey(phrases, ((FreeResource) item).getCourse_code());
+            }
+        } catch (IllegalStateException e) {
+            System.err.println("Error indexing completions for item: " + e.getMessage());
+        }
+        return phrases;
+    }
+
+    private static void addKey(List<String> phrases, String phrase) {
+        String display = display(phrase);
+        if (display != null) {
+            phrases.add(display);
+        }
+    }
+
+    private static String display(String phrase) {
+        if (phrase == null) {
+            return null;
+        }
+        String display = phrase.trim().replaceAll("\\s+", " ");
+        return display.isEmpty() ? null : display;
+    }
+
+    // Adds weight to a phrase, e.g. when a suggestion is picked.
+    public synchronized void addPhrase(String phrase, long weight) {
+        String display = display(phrase);
+        if (display == null || weight <= 0) {
+            return;
+        }
+        String key = display.toLowerCase();
+        Completion completion = completions.get(key);
+        boolean isNew = completion == null;
+        if (isNew) {
+            completion = new Completion(display);
+            completions.put(key, completion);
+        }
+        completion.weight += weight;
+        for (int start = 0; start < key.length(); start++) {
+            if (start > 0 && key.charAt(start - 1) != ' ') {
+                continue;
+            }
+            Node node = root;
+            for (int i = start; i < key.length(); i++) {
+                node = isNew ? node.childOrCreate(key.charAt(i)) : node.child(key.charAt(i));
+                node.offer(completion, topN);
+            }
+            if (isNew) {
+                node.ending = Arrays.copyOf(node.ending, node.ending.length + 1);
+                node.ending[node.ending.length - 1] = completion;
+            }
+        }
+    }
+
+    private void lower(String phrase, long weight) {
+        String key = phrase.toLowerCase();
+        Completion completion = completions.get(key);
+        if (completion == null) {
+            return;
+        }
+        completion.weight -= weight;
+        boolean dropped = completion.weight <= 0;
+        if (dropped) {
+            completions.remove(key);
+        }
+        for (int start = 0; start < key.length(); start++) {
+            if (start > 0 && key.charAt(start - 1) != ' ') {
+                continue;
+            }
+            Node[] path = new Node[key.length() - start + 1];
+            path[0] = root;
+            for (int i = start; i < key.length(); i++) {
+                path[i - start + 1] = path[i - start].child(key.charAt(i));
+            }
+            Node last = path[path.length - 1];
+            if (dropped) {
+                List<Completion> ending = new ArrayList<>(Arrays.asList(last.ending));
+                ending.remove(completion);
+                last.ending = ending.toArray(new Completion[0]);
+            }
+            for (int depth = path.length - 1; depth > 0; depth--) {
+                Node node = path[depth];
+                if (node.isEmpty()) {
+                    path[depth - 1].removeChild(key.charAt(start + depth - 1));
+                } else {
+                    node.recompute(topN);
+                }
+            }
+        }
+    }
+
+    public synchronized List<String> complete(String prefix, int limit) {
+        List<String> results = new ArrayList<>();
+        if (prefix == null || limit <= 0) {
+            return results;
+        }
+        String key = prefix.trim().replaceAll("\\s+", " ").toLowerCase();
+        if (key.isEmpty()) {
+            return results;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return results;
+        }
+        for (int i = 0; i < node.top.length && i < limit; i++) {
+            results.add(node.top[i].phrase);
+        }
+        return results;
+    }
+
+    public synchronized int size() {
+        return completions.size();
+    }
+}
@@ -0,0 +1,607 @@
+package com.studentexchange.services;
+
+import com.studentexchange.enums.Category;
+import com.studentexchange.enums.Condition;
+import com.studentexchange.enums.GradeLevel;
+import com.studentexchange.enums.ImportFormat;
+import com.studentexchange.models.Book;
+import com.studentexchange.models.User;
+import com.studentexchange.server.Json;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// Loads book listings from CSV or JSON in one pass. The input is streamed in
+// chunks of rows; each chunk is validated in parallel, valid rows are added to
+// the catalog in batches, and the search indexes are built once at the end
+// rather than per item. A bad row is recorded with its line number and skipped,
+// it never aborts the load.
+//
+// CSV needs a header row naming the columns below (in any order). JSON may be an
+// array of flat objects or one object per line, using the same field names.
+public class BulkImporter {
+    public static final String[] COLUMNS = {
+        "title", "description", "category", "grade", "subject", "condition", "market_price",
+        "price", "author", "edition", "publisher", "pages", "hardcover"
+    };
+    // Columns every row must supply; category and hardcover have defaults
+    private static final String[] REQUIRED_COLUMNS = {
+        "title", "description", "grade", "subject", "condition", "market_price",
+        "price", "author", "edition", "publisher", "pages"
+    };
+    private static final int MAX_STORED_ERRORS = 1000;
+
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    public static final class RowError {
+        private final int line;
+        private final String message;
+
+        RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + line + ": " + message;
+        }
+    }
+
+    public static final class Progress {
+        private final int rowsRead;
+        private final int imported;
+        private final int failed;
+        private final long elapsedMillis;
+
+        Progress(int rowsRead, int imported, int failed, long elapsedMillis) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    // Only the first MAX_STORED_ERRORS errors are kept; getFailed counts them all
+    public static final class Result {
+        private final int rowsRead;
+        private final int imported;
+        private final int failed;
+        private final List<RowError> errors;
+        private final long elapsedMillis;
+
+        Result(int rowsRead, int imported, int failed, List<RowError> errors, long elapsedMillis) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.failed = failed;
+            this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    // A raw row: CSV fields by column name, or the unparsed text of a JSON object.
+    // Structural problems found while reading are carried as the row's error.
+    private static final class Row {
+        final int line;
+        final Map<String, Object> fields;
+        final String json;
+        final String error;
+
+        Row(int line, Map<String, Object> fields, String json, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.json = json;
+            this.error = error;
+        }
+    }
+
+    // Outcome of validating one row: exactly one of book and error is set
+    private static final class Checked {
+        final Book book;
+        final RowError error;
+
+        Checked(Book book, RowError error) {
+            this.book = book;
+            this.error = error;
+        }
+    }
+
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    private final StudentBookExchange system;
+    private final User uploader;
+    private int chunkSize = 1000;
+    private int batchSize = 250;
+    private ProgressListener listener;
+
+    public BulkImporter(StudentBookExchange system, User uploader) {
+        if (system == null) {
+            throw new IllegalArgumentException("Exchange system cannot be null");
+        }
+        if (uploader == null) {
+            throw new IllegalArgumentException("Uploader cannot be null");
+        }
+        this.system = system;
+        this.uploader = uploader;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    // Called after every inserted batch, on the importing thread
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    public Result importFile(Path file, ImportFormat format) {
+        if (file == null) {
+            throw new IllegalArgumentException("Failed to import listings: File cannot be null");
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to import listings: " + e.getMessage(), e);
+        }
+    }
+
+    public Result importFrom(Reader reader, ImportFormat format) {
+        try {
+            if (reader == null) {
+                throw new IllegalArgumentException("Reader cannot be null");
+            }
+            if (format == null) {
+                throw new IllegalArgumentException("Import format cannot be null");
+            }
+            PushbackReader input = new PushbackReader(reader instanceof BufferedReader ? reader : new BufferedReader(reader), 1);
+            return run(format == ImportFormat.CSV ? csvRows(input) : jsonRows(input));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to import listings: " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to import listings: " + e.getMessage());
+        }
+    }
+
+    private Result run(RowSource source) throws IOException {
+        long started = System.currentTimeMillis();
+        List<Book> imported = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        int rowsRead = 0;
+        int failed = 0;
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        // Rows inserted before a fatal read error stay in the catalog, so they
+        // are indexed whether or not the stream could be read to the end
+        try {
+            boolean done = false;
+            while (!done) {
+                chunk.clear();
+                Row row;
+                while (chunk.size() < chunkSize && (row = source.next()) != null) {
+                    chunk.add(row);
+                }
+                done = chunk.size() < chunkSize;
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                rowsRead += chunk.size();
+                // Validation builds the Book objects, which is where all field checks live
+                List<Checked> checked = chunk.parallelStream().map(this::check).toList();
+                List<Book> batch = new ArrayList<>(batchSize);
+                for (Checked result : checked) {
+                    if (result.error != null) {
+                        failed++;
+                        if (errors.size() < MAX_STORED_ERRORS) {
+                            errors.add(result.error);
+                        }
+                        continue;
+                    }
+                    batch.add(result.book);
+                    if (batch.size() == batchSize) {
+                        insert(batch, imported);
+                        report(rowsRead, imported.size(), failed, started);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    insert(batch, imported);
+                }
+                report(rowsRead, imported.size(), failed, started);
+            }
+        } finally {
+            system.indexImported(imported);
+        }
+        return new Result(rowsRead, imported.size(), failed, errors, System.currentTimeMillis() - started);
+    }
+
+    private void insert(List<Book> batch, List<Book> imported) {
+        system.addImportedBooks(batch);
+        imported.addAll(batch);
+        batch.clear();
+    }
+
+    private void report(int rowsRead, int imported, int failed, long started) {
+        if (listener != null) {
+            listener.onProgress(new Progress(rowsRead, imported, failed, System.currentTimeMillis() - started));
+        }
+    }
+
+    private Checked check(Row row) {
+        if (row.error != null) {
+            return new Checked(null, new RowError(row.line, row.error));
+        }
+        try {
+            Map<String, Object> fields = row.json != null ? Json.parseObject(row.json) : row.fields;
+            Book book = new Book(
+                    text(fields, "title", true), uploader,
+                    text(fields, "description", true),
+                    parseEnum(Category.class, fields, "category", Category.BOOK),
+                    parseEnum(GradeLevel.class, fields, "grade", null),
+                    text(fields, "subject", true),
+                    parseEnum(Condition.class, fields, "condition", null),
+                    number(fields, "market_price"),
+                    number(fields, "price"),
+                    text(fields, "author", true),
+                    text(fields, "edition", true),
+                    text(fields, "publisher", true),
+                    integer(fields, "pages"),
+                    bool(fields, "hardcover"));
+            return new Checked(book, null);
+        } catch (RuntimeException e) {
+            return new Checked(null, new RowError(row.line, e.getMessage()));
+        }
+    }
+
+    private static String text(Map<String, Object> fields, String name, boolean required) {
+        Object value = fields.get(name);
+        String text = value == null ? null : value.toString().trim();
+        if (required && (text == null || text.isEmpty())) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return text;
+    }
+
+    private static float number(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value instanceof Number) {
+            return ((Number) value).floatValue();
+        }
+        String text = text(fields, name, true);
+        try {
+            return Float.parseFloat(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": '" + text + "'");
+        }
+    }
+
+    private static int integer(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            if (number != Math.rint(number)) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+            return (int) number;
+        }
+        String text = text(fields, name, true);
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": '" + text + "'");
+        }
+    }
+
+    private static boolean bool(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        String text = text(fields, name, false);
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        switch (text.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+            case "1":
+                return true;
+            case "false":
+            case "no":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid " + name + ": '" + text + "'");
+        }
+    }
+
+    // Accepts the enum name in any case, with spaces or hyphens for underscores
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, Map<String, Object> fields, String name, E fallback) {
+        String text = text(fields, name, fallback == null);
+        if (text == null || text.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, text.toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": '" + text + "'");
+        }
+    }
+
+    // RFC 4180 style: quoted fields may contain commas, newlines and doubled quotes.
+    // A row's line number is the physical line it starts on. A quote left open
+    // to the end of the input fails only its own row; reading resumes on the
+    // line after the one that row started on.
+    private static RowSource csvRows(PushbackReader reader) throws IOException {
+        PushbackReader[] input = {reader};
+        int[] line = {1};
+        String[] rest = new String[1];
+        List<String> header = readCsvRecord(input[0], line, rest);
+        if (header == null) {
+            return () -> null;
+        }
+        if (rest[0] != null) {
+            throw new IllegalArgumentException("Unterminated quoted field in CSV header");
+        }
+        List<String> columns = new ArrayList<>();
+        for (String name : header) {
+            columns.add(name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.contains(required)) {
+                throw new IllegalArgumentException("CSV header is missing column '" + required + "'");
+            }
+        }
+        return () -> {
+            while (true) {
+                int start = line[0];
+                List<String> values = readCsvRecord(input[0], line, rest);
+                if (values == null) {
+                    return null;
+                }
+                if (rest[0] != null) {
+                    input[0] = new PushbackReader(new StringReader(rest[0]), 1);
+                    rest[0] = null;
+                    line[0] = start + 1;
+                    return new Row(start, null, null, "Unterminated quoted field");
+                }
+                if (values.size() == 1 && values.get(0).trim().isEmpty()) {
+                    continue;
+                }
+                if (values.size() != columns.size()) {
+                    return new Row(start, null, null, "Expected " + columns.size() + " fields but found " + values.size());
+                }
+                Map<String, Object> fields = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    fields.put(columns.get(i), values.get(i));
+                }
+                return new Row(start, fields, null, null);
+            }
+        };
+    }
+
+    // When a quoted field runs to the end of the input, rest is set to the raw
+    // text that followed the record's first line, so the caller can read on
+    // from there.
+    private static List<String> readCsvRecord(PushbackReader input, int[] line, String[] rest) throws IOException {
+        int c = input.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        StringBuilder raw = null;
+        boolean quoted = false;
+        while (true) {
+            if (raw != null && c != -1) {
+                raw.append((char) c);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    rest[0] = raw != null ? raw.toString() : "";
+                    values.add(field.toString());
+                    return values;
+                }
+                if (c == '"') {
+                    int next = input.read();
+                    if (next == '"') {
+                        field.append('"');
+                        if (raw != null) {
+                            raw.append('"');
+                        }
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            input.unread(next);
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line[0]++;
+                        if (raw == null) {
+                            raw = new StringBuilder();
+                        }
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    line[0]++;
+                }
+                values.add(field.toString());
+                return values;
+            } else if (c == '\r') {
+                int next = input.read();
+                if (next != '\n' && next != -1) {
+                    input.unread(next);
+                }
+                line[0]++;
+                values.add(field.toString());
+                return values;
+            } else {
+                field.append((char) c);
+            }
+            c = input.read();
+        }
+    }
+
+    // Splits the stream into top-level objects by tracking brace depth outside
+    // strings, so one object is held in memory at a time. Parsing each object is
+    // left to the parallel validation step. Text where an object should start, or
+    // an object left open to the end of the input, is one row error; reading
+    // resumes at the next '{'.
+    private static RowSource jsonRows(PushbackReader reader) throws IOException {
+        PushbackReader[] input = {reader};
+        int[] line = {1};
+        int first = skipJsonSeparators(input[0], line);
+        boolean array = first == '[';
+        if (!array && first != -1) {
+            input[0].unread(first);
+        }
+        boolean[] finished = {first == -1};
+        return () -> {
+            if (finished[0]) {
+                return null;
+            }
+            int c = skipJsonSeparators(input[0], line);
+            if (c == -1 || (array && c == ']')) {
+                finished[0] = true;
+                return null;
+            }
+            if (c != '{') {
+                int start = line[0];
+                while (c != -1 && c != '{' && !(array && c == ']')) {
+                    if (c == '\n') {
+                        line[0]++;
+                    }
+                    c = input[0].read();
+                }
+                if (c != -1) {
+                    input[0].unread(c);
+                }
+                return new Row(start, null, null, "Expected a JSON object");
+            }
+            int start = line[0];
+            StringBuilder text = new StringBuilder().append('{');
+            int depth = 1;
+            boolean inString = false;
+            while (depth > 0) {
+                c = input[0].read();
+                if (c == -1) {
+                    return unterminatedObject(input, line, start, text);
+                }
+                text.append((char) c);
+                if (c == '\n') {
+                    line[0]++;
+                }
+                if (inString) {
+                    if (c == '\\') {
+                        int escaped = input[0].read();
+                        if (escaped == -1) {
+                            return unterminatedObject(input, line, start, text);
+                        }
+                        text.append((char) escaped);
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+            }
+            return new Row(start, null, text.toString(), null);
+        };
+    }
+
+    // The text swallowed by the open object is read again from the next '{' in
+    // it, so a missing '}' costs one row rather than every object that followed
+    private static Row unterminatedObject(PushbackReader[] input, int[] line, int start, StringBuilder text) {
+        int resume = text.indexOf("{", 1);
+        if (resume < 0) {
+            resume = text.length();
+        }
+        line[0] = start;
+        for (int i = 0; i < resume; i++) {
+            if (text.charAt(i) == '\n') {
+                line[0]++;
+            }
+        }
+        input[0] = new PushbackReader(new StringReader(text.substring(resume)), 1);
+        return new Row(start, null, null, "Unterminated JSON object");
+    }
+
+    private static int skipJsonSeparators(PushbackReader input, int[] line) throws IOException {
+        int c = input.read();
+        while (c != -1 && (Character.isWhitespace(c) || c == ',' || c == '\uFEFF')) {
+            if (c == '\n') {
+                line[0]++;
+            }
+            c = input.read();
+        }
+        return c;
+    }
+}
@@ -0,0 +1,116 @@
+package com.studentexchange.services;
+
+import com.studentexchange.models.CreditAccount;
+import com.studentexchange.models.CreditEntry;
+import com.studentexchange.models.User;
+import java.util.List;
+
+// Entry point for every credit movement. Award amounts come from CreditSystem;
+// balances and history live in each user's CreditAccount, which is safe to
+// update from parallel checkouts.
+public class CreditLedger {
+    // Told about refunds and spends, the only credit movements that are not a
+    // side effect of another mutation
+    public interface AdjustmentListener {
+        void adjusted(User user, int points, String reason);
+    }
+
+    private final CreditSystem creditSystem;
+    private volatile StripedLocks stripes;
+    private volatile AdjustmentListener adjustmentListener;
+
+    public CreditLedger(CreditSystem creditSystem) {
+        if (creditSystem == null) {
+            throw new IllegalArgumentException("Credit system cannot be null");
+        }
+        this.creditSystem = creditSystem;
+    }
+
+    // Refunds and spends then run under the user's stripe, the one that user's
+    // purchases hold, and report before releasing it, so they are reported in
+    // the same order as the purchases they interleave with
+    void watch(StripedLocks stripes, AdjustmentListener listener) {
+        this.stripes = stripes;
+        this.adjustmentListener = listener;
+    }
+
+    public CreditEntry awardUploadCredits(User user) {
+        return account(user).credit(creditSystem.getUploadCredits(), "Upload reward");
+    }
+
+    // Returns the entry written, or null when the amount earns no points.
+    public CreditEntry awardTransactionPoints(User user, float transactionAmount) {
+        CreditAccount account = account(user);
+        int points = creditSystem.getTransactionPoints(transactionAmount);
+        return points > 0 ? account.credit(points, "Transaction reward") : null;
+    }
+
+    public CreditEntry awardReviewCredits(User user) {
+        return account(user).credit(creditSystem.getReviewCredits(), "Review completed");
+    }
+
+    public CreditEntry refund(User user, int points, String reason) {
+        CreditAccount account = account(user);
+        StripedLocks.Held held = lock(user);
+        try {
+            CreditEntry entry = account.credit(points, reason);
+            adjusted(user, points, reason);
+            return entry;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    // Returns false without changing the balance when the user cannot cover the spend.
+    public boolean spend(User user, int points, String reason) {
+        CreditAccount account = account(user);
+        StripedLocks.Held held = lock(user);
+        try {
+            if (account.tryDebit(points, reason) == null) {
+                return false;
+            }
+            adjusted(user, -points, reason);
+            return true;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    // Gives back credits taken by a purchase that is being rolled back; the
+    // purchase was never reported, so neither is this
+    CreditEntry restore(User user, int points, String reason) {
+        return account(user).credit(points, reason);
+    }
+
+    public int balance(User user) {
+        return account(user).getBalance();
+    }
+
+    public List<CreditEntry> getHistory(User user) {
+        return account(user).getEntries();
+    }
+
+    public boolean verifyBalance(User user) {
+        CreditAccount account = account(user);
+        return account.sumEntries() == account.getBalance();
+    }
+
+    private StripedLocks.Held lock(User user) {
+        StripedLocks locks = stripes;
+        return locks != null ? locks.lock(user.getUser_id()) : () -> { };
+    }
+
+    private void adjusted(User user, int points, String reason) {
+        AdjustmentListener listener = adjustmentListener;
+        if (listener != null) {
+            listener.adjusted(user, points, reason);
+        }
+    }
+
+    private CreditAccount account(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        return user.getCredit_account();
+    }
+}
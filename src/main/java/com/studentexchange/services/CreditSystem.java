@@ -5,6 +5,8 @@ import com.studentexchange.models.Transaction;
 
 public class CreditSystem {
     private static final int UPLOAD_CREDITS = 10;
+    private static final int REVIEW_CREDITS = 10;
+    private static final int MAX_TRANSACTION_POINTS = 100;
 
     public CreditSystem() { }
 
@@ -12,23 +14,30 @@ public class CreditSystem {
         return UPLOAD_CREDITS;
     }
 
+    public int getReviewCredits() {
+        return REVIEW_CREDITS;
+    }
+
+    public int getTransactionPoints(float transactionAmount) {
+        if (transactionAmount < 0) {
+            throw new IllegalArgumentException("Transaction amount cannot be negative");
+        }
+        return Math.min((int) (transactionAmount / 10), MAX_TRANSACTION_POINTS);
+    }
+
     public float getCreditValue(int credits) {
         return credits * 10.0f;
     }
 
     public void addReviewCompletionCredits(User user) {
-        user.addCreditPoints(10);
+        user.addCreditPoints(REVIEW_CREDITS, "Review completed");
     }
 
     public void awardPointsForTransaction(User user, float transactionAmount) {
         try {
-            if (transactionAmount < 0) {
-                throw new IllegalArgumentException("Transaction amount cannot be negative");
-            }
-            int points = (int) (transactionAmount / 10);
-            points = Math.min(points, 100);
+            int points = getTransactionPoints(transactionAmount);
             if (points > 0) {
-                user.addCreditPoints(points);
+                user.addCreditPoints(points, "Transaction reward");
             }
         } catch (Exception e) {
         }
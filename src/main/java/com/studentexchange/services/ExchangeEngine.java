@@ -0,0 +1,307 @@
+package com.studentexchange.services;
+
+import com.studentexchange.enums.*;
+import com.studentexchange.models.*;
+import com.studentexchange.services.ExchangeSnapshot.ItemValue;
+import com.studentexchange.services.ExchangeSnapshot.TransactionValue;
+import com.studentexchange.services.ExchangeSnapshot.UserValue;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Optional single-writer mode. Every mutation is wrapped as a command and
+// queued on a lock-free ring buffer; one writer thread applies them in order,
+// so the model classes never see concurrent writes and need no locks of their
+// own. After each drained batch the writer publishes an immutable snapshot
+// that readers use without coordination. Only the users, items and
+// transactions the batch touched are copied into it; the rest is shared with
+// the previous snapshot.
+public final class ExchangeEngine implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public interface Command<T> {
+        T apply(StudentBookExchange system);
+    }
+
+    private static final class Pending<T> {
+        final Command<T> command;
+        // Marks what the command changed given its result; null means unknown
+        final Consumer<? super T> changed;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        // Taken by whichever of the writer (to run the command) or a stopping
+        // submitter (to cancel it) gets there first, so a command that runs is
+        // never also reported as stopped
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        Pending(Command<T> command, Consumer<? super T> changed) {
+            this.command = command;
+            this.changed = changed;
+        }
+
+        boolean cancel() {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            result.completeExceptionally(new IllegalStateException("Engine is stopped"));
+            return true;
+        }
+
+        void run(ExchangeEngine engine) {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            T value;
+            try {
+                value = command.apply(engine.system);
+            } catch (Throwable t) {
+                // Typed commands roll back on failure; an arbitrary one may not have
+                if (changed == null) {
+                    engine.refreshAll = true;
+                }
+                result.completeExceptionally(t);
+                return;
+            }
+            if (changed != null) {
+                changed.accept(value);
+            } else {
+                engine.refreshAll = true;
+            }
+            result.complete(value);
+        }
+    }
+
+    private final StudentBookExchange system;
+    private final RingBuffer<Pending<?>> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean idle;
+    private volatile ExchangeSnapshot snapshot;
+    private long applied;
+
+    // What the current batch changed. Items are reported by the catalog, which
+    // may call back from any thread; users and transactions only ever from
+    // the writer.
+    private final Map<String, Item> changedItems = new ConcurrentHashMap<>();
+    private final Map<String, User> changedUsers = new HashMap<>();
+    private final Map<String, Transaction> changedTransactions = new HashMap<>();
+    private boolean refreshAll = true;
+    private final Catalog.ItemListener itemListener = new Catalog.ItemListener() {
+        @Override
+        public void itemsAdded(List<? extends Item> items) {
+            for (Item item : items) {
+                changedItems.put(item.getItem_id(), item);
+            }
+        }
+
+        @Override
+        public void itemRemoved(Item item) {
+            changedItems.put(item.getItem_id(), item);
+        }
+
+        @Override
+        public void itemChanged(Item item) {
+            changedItems.put(item.getItem_id(), item);
+        }
+
+        @Override
+        public void availabilityChanged(Item item) {
+            changedItems.put(item.getItem_id(), item);
+        }
+    };
+
+    public ExchangeEngine(StudentBookExchange system) {
+        this(system, DEFAULT_CAPACITY);
+    }
+
+    public ExchangeEngine(StudentBookExchange system, int capacity) {
+        if (system == null) {
+            throw new IllegalArgumentException("System cannot be null");
+        }
+        this.system = system;
+        this.queue = new RingBuffer<>(capacity);
+        system.getCatalog().addItemListener(itemListener);
+        this.snapshot = takeSnapshot();
+        this.writer = new Thread(this::drainLoop, "exchange-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public ExchangeSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    // Enqueues a command, spinning then parking briefly while the buffer is full.
+    // The engine cannot tell what an arbitrary command changes, so the snapshot
+    // after it is rebuilt in full; the dedicated methods below avoid that.
+    public <T> CompletableFuture<T> submit(Command<T> command) {
+        return submit(command, null);
+    }
+
+    private <T> CompletableFuture<T> submit(Command<T> command, Consumer<? super T> changed) {
+        if (command == null) {
+            throw new IllegalArgumentException("Command cannot be null");
+        }
+        Pending<T> pending = new Pending<>(command, changed);
+        int attempts = 0;
+        while (!queue.offer(pending)) {
+            if (!running) {
+                pending.cancel();
+                return pending.result;
+            }
+            if (++attempts < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        // Queued while the engine was stopping: the writer may or may not get
+        // to it, and the claim decides which side completes the future. Seen
+        // running here, the writer is certain to poll it before it exits.
+        if (!running) {
+            pending.cancel();
+        } else if (idle) {
+            LockSupport.unpark(writer);
+        }
+        return pending.result;
+    }
+
+    public CompletableFuture<User> registerUser(String name, String cnic, String email, String password, String phone, String address) {
+        return submit(s -> s.registerUser(name, cnic, email, password, phone, address), this::userChanged);
+    }
+
+    public CompletableFuture<Book> uploadBook(User uploader, String title, String description, Category category, GradeLevel grade, String subject, Condition condition, float market_price, float price, String author, String edition, String publisher, int pages, boolean is_hardcover) {
+        // The catalog reports the new item itself
+        return submit(s -> s.uploadBook(uploader, title, description, category, grade, subject, condition,
+                market_price, price, author, edition, publisher, pages, is_hardcover), book -> { });
+    }
+
+    public CompletableFuture<Transaction> purchase(User buyer, Item item, PaymentMethod method, String idempotencyKey) {
+        return submit(s -> s.createTransaction(buyer, item, method, idempotencyKey), this::transactionChanged);
+    }
+
+    public CompletableFuture<Void> updateShippingStatus(Transaction transaction, ShippingStatus status) {
+        return submit(s -> {
+            s.updateShippingStatus(transaction, status);
+            return null;
+        }, ignored -> transactionChanged(transaction));
+    }
+
+    // Positive points are credited, negative points spent; returns the new balance
+    public CompletableFuture<Integer> adjustCredits(User user, int points, String reason) {
+        return submit(s -> {
+            if (points >= 0) {
+                s.getCreditLedger().refund(user, points, reason);
+            } else if (!s.getCreditLedger().spend(user, -points, reason)) {
+                throw new IllegalStateException("Insufficient credit points");
+            }
+            return s.getCreditLedger().balance(user);
+        }, balance -> userChanged(user));
+    }
+
+    private void userChanged(User user) {
+        changedUsers.put(user.getUser_id(), user);
+    }
+
+    // A transaction also changes its item's availability and both parties' credits
+    private void transactionChanged(Transaction transaction) {
+        changedTransactions.put(transaction.getTransaction_id(), transaction);
+        changedItems.put(transaction.getItem().getItem_id(), transaction.getItem());
+        userChanged(transaction.getBuyer());
+        userChanged(transaction.getSeller());
+    }
+
+    private void drainLoop() {
+        while (running) {
+            int drained = 0;
+            Pending<?> pending;
+            while (drained < MAX_BATCH && (pending = queue.poll()) != null) {
+                pending.run(this);
+                drained++;
+            }
+            if (drained > 0) {
+                applied += drained;
+                snapshot = takeSnapshot();
+                continue;
+            }
+            idle = true;
+            if (queue.size() == 0 && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+        Pending<?> leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.cancel();
+        }
+    }
+
+    // Copies only what changed since the last snapshot into new immutable
+    // values; everything else is shared with the previous snapshot
+    private ExchangeSnapshot takeSnapshot() {
+        Catalog catalog = system.getCatalog();
+        if (refreshAll) {
+            refreshAll = false;
+            changedItems.clear();
+            changedUsers.clear();
+            changedTransactions.clear();
+            Map<String, ItemValue> items = new HashMap<>();
+            for (Item item : catalog.getItems()) {
+                items.put(item.getItem_id(), ItemValue.of(item));
+            }
+            Map<String, UserValue> users = new HashMap<>();
+            for (User user : system.getUsers().values()) {
+                users.put(user.getUser_id(), UserValue.of(user));
+            }
+            Map<String, TransactionValue> transactions = new HashMap<>();
+            for (Transaction transaction : system.getTransactions()) {
+                transactions.put(transaction.getTransaction_id(), TransactionValue.of(transaction));
+            }
+            return new ExchangeSnapshot(applied, catalog.getVersion(), VersionedTable.<ItemValue>empty().with(items),
+                    VersionedTable.<UserValue>empty().with(users), VersionedTable.<TransactionValue>empty().with(transactions));
+        }
+
+        ExchangeSnapshot previous = snapshot;
+        Map<String, ItemValue> items = new HashMap<>();
+        for (String itemId : changedItems.keySet()) {
+            changedItems.remove(itemId);
+            Item item = catalog.getItemById(itemId);
+            items.put(itemId, item != null ? ItemValue.of(item) : null);
+        }
+        Map<String, UserValue> users = new HashMap<>();
+        for (User user : changedUsers.values()) {
+            users.put(user.getUser_id(), UserValue.of(user));
+        }
+        changedUsers.clear();
+        Map<String, TransactionValue> transactions = new HashMap<>();
+        for (Transaction transaction : changedTransactions.values()) {
+            transactions.put(transaction.getTransaction_id(), TransactionValue.of(transaction));
+        }
+        changedTransactions.clear();
+        return new ExchangeSnapshot(applied, catalog.getVersion(), previous.itemTable().with(items),
+                previous.userTable().with(users), previous.transactionTable().with(transactions));
+    }
+
+    @Override
+    public void close() {
+        system.getCatalog().removeItemListener(itemListener);
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
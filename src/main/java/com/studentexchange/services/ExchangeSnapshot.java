@@ -0,0 +1,130 @@
+package com.studentexchange.services;
+
+import com.studentexchange.enums.*;
+import com.studentexchange.models.*;
+import java.util.*;
+
+// Read-only view published by ExchangeEngine after each batch of commands.
+// It holds immutable values copied from the models on the writer thread, never
+// the models themselves, so readers can use it freely while further commands
+// are applied. Each snapshot shares everything a batch did not touch with the
+// one before it.
+public final class ExchangeSnapshot {
+    public record ItemValue(String itemId, String title, String subject, Category category, GradeLevel grade,
+                            String uploaderId, Float price, boolean sold, String searchText) {
+        static ItemValue of(Item item) {
+            Float price = null;
+            boolean sold = false;
+            if (item instanceof ForSaleItem) {
+                ForSaleItem forSale = (ForSaleItem) item;
+                price = forSale.getPrice();
+                sold = forSale.isIs_sold();
+            }
+            return new ItemValue(item.getItem_id(), item.getTitle(), item.getSubject(), item.getCategory(), item.getGrade(),
+                    item.getUploader().getUser_id(), price, sold, item.getSearch_text());
+        }
+    }
+
+    public record UserValue(String userId, String name, String email, int creditPoints, float averageRating) {
+        static UserValue of(User user) {
+            return new UserValue(user.getUser_id(), user.getName(), user.getEmail(), user.getCredit_points(), user.getAverage_rating());
+        }
+    }
+
+    public record TransactionValue(String buyerId, String sellerId, String itemId, TransactionStatus status) {
+        static TransactionValue of(Transaction transaction) {
+            return new TransactionValue(transaction.getBuyer().getUser_id(), transaction.getSeller().getUser_id(),
+                    transaction.getItem().getItem_id(), transaction.getTransactionStatus());
+        }
+
+        public String transactionId() {
+            return status.getTransaction_id();
+        }
+    }
+
+    private final long sequence;
+    private final long catalogVersion;
+    private final VersionedTable<ItemValue> items;
+    private final VersionedTable<UserValue> users;
+    private final VersionedTable<TransactionValue> transactions;
+
+    ExchangeSnapshot(long sequence, long catalogVersion, VersionedTable<ItemValue> items, VersionedTable<UserValue> users, VersionedTable<TransactionValue> transactions) {
+        this.sequence = sequence;
+        this.catalogVersion = catalogVersion;
+        this.items = items;
+        this.users = users;
+        this.transactions = transactions;
+    }
+
+    VersionedTable<ItemValue> itemTable() {
+        return items;
+    }
+
+    VersionedTable<UserValue> userTable() {
+        return users;
+    }
+
+    VersionedTable<TransactionValue> transactionTable() {
+        return transactions;
+    }
+
+    // Number of commands applied when this snapshot was taken
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public List<ItemValue> getItems() {
+        return items.values();
+    }
+
+    public ItemValue getItemById(String itemId) {
+        return items.get(itemId);
+    }
+
+    public List<UserValue> getUsers() {
+        return users.values();
+    }
+
+    public UserValue getUserById(String userId) {
+        return users.get(userId);
+    }
+
+    public UserValue findUserByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String trimmed = email.trim();
+        for (UserValue user : users.values()) {
+            if (user.email().equalsIgnoreCase(trimmed)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    public List<TransactionValue> getTransactions() {
+        return transactions.values();
+    }
+
+    public TransactionValue getTransactionById(String transactionId) {
+        return transactions.get(transactionId);
+    }
+
+    public List<ItemValue> search(String keyword) {
+        List<ItemValue> results = new ArrayList<>();
+        String normalized = Item.normalizeSearchText(keyword);
+        if (normalized.isEmpty()) {
+            return results;
+        }
+        for (ItemValue item : items.values()) {
+            if (item.searchText().contains(normalized)) {
+                results.add(item);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,235 @@
+package com.studentexchange.services;
+
+import com.studentexchange.models.Item;
+import java.util.*;
+
+// Spelling correction over the catalog vocabulary using a SymSpell-style
+// deletion index. Every term is stored under all variants with up to
+// MAX_DISTANCE characters deleted (from a fixed-length prefix to bound memory).
+// A misspelled query term generates its own deletes and looks them up, so
+// candidates come from a few hash lookups instead of comparing against every
+// term. Candidates are then verified with a bounded edit distance. Term counts
+// follow the catalog: an edit applies only the terms it changed, and a removed
+// item takes its terms back, dropping any term no longer used.
+public class FuzzyMatcher {
+    private static final int MAX_DISTANCE = 2;
+    private static final int PREFIX_LENGTH = 7;
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private final Map<String, List<String>> deletes = new HashMap<>();
+    // Term counts each item contributed, so an edit or removal can take them back
+    private final Map<String, Map<String, Integer>> itemTerms = new HashMap<>();
+
+    // Indexes a new item's terms; for an item already indexed this is update
+    public void add(Item item) {
+        update(item);
+    }
+
+    public synchronized void update(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        Map<String, Integer> counts = termsOf(item);
+        Map<String, Integer> previous = itemTerms.put(item.getItem_id(), counts);
+        if (previous != null) {
+            for (Map.Entry<String, Integer> entry : previous.entrySet()) {
+                int delta = counts.getOrDefault(entry.getKey(), 0) - entry.getValue();
+                if (delta < 0) {
+                    removeTerm(entry.getKey(), -delta);
+                }
+            }
+        }
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            int delta = entry.getValue() - (previous != null ? previous.getOrDefault(entry.getKey(), 0) : 0);
+            if (delta > 0) {
+                addTerm(entry.getKey(), delta);
+            }
+        }
+    }
+
+    // Takes back the terms of an item that left the catalog
+    public synchronized void remove(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        Map<String, Integer> previous = itemTerms.remove(item.getItem_id());
+        if (previous != null) {
+            previous.forEach(this::removeTerm);
+        }
+    }
+
+    private static Map<String, Integer> termsOf(Item item) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String field : RelevanceIndex.fieldsOf(item)) {
+            for (String term : RelevanceIndex.tokenize(field)) {
+                if (term.length() >= MIN_TERM_LENGTH) {
+                    counts.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    public synchronized void addTerm(String term) {
+        addTerm(term, 1);
+    }
+
+    private void addTerm(String term, int times) {
+        if (term == null || term.length() < MIN_TERM_LENGTH) {
+            return;
+        }
+        Integer count = vocabulary.get(term);
+        vocabulary.put(term, count == null ? times : count + times);
+        if (count != null) {
+            return;
+        }
+        for (String variant : deletesOf(prefixOf(term))) {
+            deletes.computeIfAbsent(variant, k -> new ArrayList<>(2)).add(term);
+        }
+    }
+
+    private void removeTerm(String term, int times) {
+        Integer count = vocabulary.get(term);
+        if (count == null) {
+            return;
+        }
+        if (count > times) {
+            vocabulary.put(term, count - times);
+            return;
+        }
+        vocabulary.remove(term);
+        for (String variant : deletesOf(prefixOf(term))) {
+            List<String> terms = deletes.get(variant);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                deletes.remove(variant);
+            }
+        }
+    }
+
+    private static String prefixOf(String term) {
+        return term.length() > PREFIX_LENGTH ? term.substring(0, PREFIX_LENGTH) : term;
+    }
+
+    public synchronized boolean contains(String term) {
+        return term != null && vocabulary.containsKey(term.toLowerCase());
+    }
+
+    // Vocabulary terms within the edit-distance budget, closest and most frequent first.
+    public synchronized List<String> corrections(String word, int limit) {
+        List<String> results = new ArrayList<>();
+        if (word == null || limit <= 0) {
+            return results;
+        }
+        String term = word.trim().toLowerCase();
+        if (term.length() < MIN_TERM_LENGTH) {
+            return results;
+        }
+        if (vocabulary.containsKey(term)) {
+            results.add(term);
+            return results;
+        }
+        int maxDistance = term.length() <= 4 ? 1 : MAX_DISTANCE;
+        Map<String, Integer> distances = new HashMap<>();
+        for (String variant : deletesOf(prefixOf(term))) {
+            List<String> candidates = deletes.get(variant);
+            if (candidates == null) {
+                continue;
+            }
+            for (String candidate : candidates) {
+                if (distances.containsKey(candidate) || Math.abs(candidate.length() - term.length()) > maxDistance) {
+                    continue;
+                }
+                distances.put(candidate, editDistance(term, candidate, maxDistance));
+            }
+        }
+        List<String> matches = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : distances.entrySet()) {
+            if (entry.getValue() <= maxDistance) {
+                matches.add(entry.getKey());
+            }
+        }
+        matches.sort((a, b) -> {
+            int byDistance = Integer.compare(distances.get(a), distances.get(b));
+            if (byDistance != 0) {
+                return byDistance;
+            }
+            int byFrequency = Integer.compare(vocabulary.get(b), vocabulary.get(a));
+            return byFrequency != 0 ? byFrequency : a.compareTo(b);
+        });
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    // Rewrites each query term to its best correction; unknown terms stay as typed.
+    public String correct(String query) {
+        List<String> terms = RelevanceIndex.tokenize(query);
+        StringBuilder corrected = new StringBuilder();
+        for (String term : terms) {
+            List<String> best = corrections(term, 1);
+            if (corrected.length() > 0) {
+                corrected.append(' ');
+            }
+            corrected.append(best.isEmpty() ? term : best.get(0));
+        }
+        return corrected.toString();
+    }
+
+    public synchronized int size() {
+        return vocabulary.size();
+    }
+
+    private static Set<String> deletesOf(String word) {
+        Set<String> variants = new HashSet<>();
+        variants.add(word);
+        List<String> frontier = Collections.singletonList(word);
+        for (int d = 0; d < MAX_DISTANCE; d++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String variant = current.substring(0, i) + current.substring(i + 1);
+                    if (variants.add(variant)) {
+                        next.add(variant);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return variants;
+    }
+
+    // Optimal string alignment distance; returns max + 1 once the bound is exceeded.
+    static int editDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] prevPrev = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return Math.min(prev[m], max + 1);
+    }
+}
@@ -0,0 +1,89 @@
+package com.studentexchange.services;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Bounded, time-expiring map from idempotency key to the result of the first
+// request that used it. Entries are kept in insertion order, so both the size
+// bound and expiry only ever look at the eldest entries.
+public class IdempotencyCache<V> {
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private static class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    public IdempotencyCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public IdempotencyCache(int maxEntries, long ttl, TimeUnit unit) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        if (ttl <= 0 || unit == null) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = unit.toMillis(ttl);
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > IdempotencyCache.this.maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(String key) {
+        if (key == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        Entry<V> entry = entries.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    public synchronized void put(String key, V value) {
+        if (key == null || key.trim().isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key cannot be null or empty");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        entries.remove(key);
+        entries.put(key, new Entry<>(value, now + ttlMillis));
+    }
+
+    public synchronized int size() {
+        evictExpired(System.currentTimeMillis());
+        return entries.size();
+    }
+
+    // Entries share one TTL and are in insertion order, so expiry stops at the
+    // first live entry.
+    private void evictExpired(long now) {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt > now) {
+                break;
+            }
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.studentexchange.services;
+
+import java.util.*;
+
+// Bounded top-K ranking. Scores either decay exponentially with a half-life or,
+// with a half-life of 0, never decay. Decay uses forward weighting: each
+// increment is scaled up by how far it sits past a fixed landmark time, so
+// older entries never need rescoring and the ranking order stays valid as
+// time passes. Once the ranking is full, a key gets in by beating the lowest
+// ranked entry, which moves to a reserve of the same size with its score intact
+// and can climb back later. The lowest reserve entry is dropped when the reserve
+// overflows, so a board never holds more than twice its capacity.
+public class Leaderboard<T> {
+    // Rescale stored scores before forward weights can overflow a double
+    private static final double MAX_EXPONENT = 512;
+
+    private static class Entry<T> {
+        final String key;
+        T value;
+        double score;
+
+        Entry(String key, T value, double score) {
+            this.key = key;
+            this.value = value;
+            this.score = score;
+        }
+    }
+
+    private final int capacity;
+    private final long halfLifeMillis;
+    private long landmark;
+    private final Map<String, Entry<T>> entries = new HashMap<>();
+    private final Comparator<Entry<T>> order = (a, b) -> {
+        int byScore = Double.compare(b.score, a.score);
+        return byScore != 0 ? byScore : a.key.compareTo(b.key);
+    };
+    // At most capacity entries each, every ranked entry at or above every reserve entry
+    private final TreeSet<Entry<T>> ranked = new TreeSet<>(order);
+    private final TreeSet<Entry<T>> reserve = new TreeSet<>(order);
+
+    public Leaderboard(int capacity, long halfLifeMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (halfLifeMillis < 0) {
+            throw new IllegalArgumentException("Half-life cannot be negative");
+        }
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.landmark = System.currentTimeMillis();
+    }
+
+    public void increment(String key, T value, double amount) {
+        increment(key, value, amount, System.currentTimeMillis());
+    }
+
+    public synchronized void increment(String key, T value, double amount, long now) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null");
+        }
+        if (amount <= 0) {
+            return;
+        }
+        Entry<T> entry = entries.get(key);
+        double weighted = amount * forwardWeight(now);
+        place(key, value, entry != null ? entry.score + weighted : weighted);
+    }
+
+    // Replaces the score outright; meant for boards without decay such as ratings.
+    public synchronized void set(String key, T value, double score) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null");
+        }
+        place(key, value, score * forwardWeight(System.currentTimeMillis()));
+    }
+
+    public synchronized void remove(String key) {
+        Entry<T> entry = entries.remove(key);
+        if (entry != null && !ranked.remove(entry)) {
+            reserve.remove(entry);
+        }
+        rebalance();
+    }
+
+    public synchronized List<T> top(int k) {
+        List<T> results = new ArrayList<>(Math.min(Math.max(k, 0), ranked.size()));
+        for (Entry<T> entry : ranked) {
+            if (results.size() >= k) {
+                break;
+            }
+            results.add(entry.value);
+        }
+        return results;
+    }
+
+    // Current score, decayed to now.
+    public synchronized double getScore(String key) {
+        Entry<T> entry = entries.get(key);
+        return entry != null ? entry.score / forwardWeight(System.currentTimeMillis()) : 0.0;
+    }
+
+    // Number of keys with a score, ranked or in reserve
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized int getRankedSize() {
+        return ranked.size();
+    }
+
+    private void place(String key, T value, double score) {
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key, value, score);
+            entries.put(key, entry);
+        } else {
+            if (!ranked.remove(entry)) {
+                reserve.remove(entry);
+            }
+            entry.value = value;
+            entry.score = score;
+        }
+        ranked.add(entry);
+        rebalance();
+    }
+
+    // Restores the invariant after one entry changed; a single update needs at most one swap
+    private void rebalance() {
+        while (ranked.size() > capacity) {
+            reserve.add(ranked.pollLast());
+        }
+        while (ranked.size() < capacity && !reserve.isEmpty()) {
+            ranked.add(reserve.pollFirst());
+        }
+        if (!reserve.isEmpty() && order.compare(reserve.first(), ranked.last()) < 0) {
+            Entry<T> promoted = reserve.pollFirst();
+            reserve.add(ranked.pollLast());
+            ranked.add(promoted);
+        }
+        while (reserve.size() > capacity) {
+            entries.remove(reserve.pollLast().key);
+        }
+    }
+
+    private double forwardWeight(long now) {
+        if (halfLifeMillis == 0) {
+            return 1.0;
+        }
+        double exponent = (double) (now - landmark) / halfLifeMillis;
+        if (exponent > MAX_EXPONENT) {
+            rescale(now);
+            exponent = 0;
+        }
+        return Math.pow(2, exponent);
+    }
+
+    // Moves the landmark to now; dividing every score by the same factor keeps the order.
+    private void rescale(long now) {
+        double factor = Math.pow(2, (double) (now - landmark) / halfLifeMillis);
+        for (Entry<T> entry : entries.values()) {
+            entry.score /= factor;
+        }
+        landmark = now;
+    }
+}
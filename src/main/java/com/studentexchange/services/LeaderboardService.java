@@ -0,0 +1,84 @@
+package com.studentexchange.services;
+
+import com.studentexchange.models.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The exchange's leaderboards, fed as views, downloads, sales and reviews happen.
+public class LeaderboardService {
+    private static final int DEFAULT_CAPACITY = 1000;
+    private static final long WEEK_HALF_LIFE = TimeUnit.DAYS.toMillis(7);
+
+    private final Leaderboard<User> topRatedSellers;
+    private final Leaderboard<User> topSellersBySales;
+    private final Leaderboard<Item> mostViewedItems;
+    private final Leaderboard<FreeResource> mostDownloadedResources;
+
+    public LeaderboardService() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LeaderboardService(int capacity) {
+        this.topRatedSellers = new Leaderboard<>(capacity, 0);
+        this.topSellersBySales = new Leaderboard<>(capacity, 0);
+        this.mostViewedItems = new Leaderboard<>(capacity, WEEK_HALF_LIFE);
+        this.mostDownloadedResources = new Leaderboard<>(capacity, 0);
+    }
+
+    public void recordViews(Item item, long views) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        mostViewedItems.increment(item.getItem_id(), item, views);
+    }
+
+    public void recordDownloads(FreeResource resource, long downloads) {
+        if (resource == null) {
+            throw new IllegalArgumentException("Resource cannot be null");
+        }
+        mostDownloadedResources.increment(resource.getItem_id(), resource, downloads);
+    }
+
+    public void recordSale(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        User seller = transaction.getSeller();
+        topSellersBySales.increment(seller.getUser_id(), seller, 1);
+    }
+
+    public void recordRating(User user, RatingSummary summary) {
+        if (user == null || summary == null) {
+            throw new IllegalArgumentException("User and rating summary cannot be null");
+        }
+        if (summary.getCount() > 0) {
+            topRatedSellers.set(user.getUser_id(), user, summary.getAverage());
+        }
+    }
+
+    // Called when an item leaves the catalog, so sold-and-archived or deleted
+    // listings stop holding places on the item boards
+    public void removeItem(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        mostViewedItems.remove(item.getItem_id());
+        mostDownloadedResources.remove(item.getItem_id());
+    }
+
+    public List<User> getTopRatedSellers(int k) {
+        return topRatedSellers.top(k);
+    }
+
+    public List<User> getTopSellersBySales(int k) {
+        return topSellersBySales.top(k);
+    }
+
+    public List<Item> getMostViewedItems(int k) {
+        return mostViewedItems.top(k);
+    }
+
+    public List<FreeResource> getMostDownloadedResources(int k) {
+        return mostDownloadedResources.top(k);
+    }
+}
@@ -0,0 +1,164 @@
+package com.studentexchange.services;
+
+import com.studentexchange.models.Catalog;
+import com.studentexchange.models.FreeResource;
+import com.studentexchange.models.Item;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Periodically folds the striped view and download counters into the
+// leaderboards and the search ranking's view boost. Only the change since the
+// previous roll-up is fed, so the hot increment path never touches the
+// rankings, and cached search results are invalidated once per roll-up rather
+// than once per view. Each tick visits live inventory plus the items sold or
+// relisted since the previous tick, never the sold history, and an item's
+// counters are forgotten when it leaves the catalog.
+public class PopularityRollup {
+    private static final long DEFAULT_INTERVAL_SECONDS = 30;
+
+    // Told the running totals of each item whose counters moved in a roll-up
+    public interface CountsListener {
+        void countsRolled(Item item, long views, long downloads);
+    }
+
+    private final Catalog catalog;
+    private final LeaderboardService leaderboards;
+    private final RelevanceIndex relevanceIndex;
+    private final Map<String, Long> rolledViews = new HashMap<>();
+    private final Map<String, Long> rolledDownloads = new HashMap<>();
+    // Items whose availability changed since the last tick, so views they took
+    // before being sold are still rolled up once
+    private final Map<String, Item> availabilityChanged = new ConcurrentHashMap<>();
+    private final Catalog.ItemListener itemListener = new Catalog.ItemListener() {
+        @Override
+        public void itemsAdded(List<? extends Item> items) {
+        }
+
+        @Override
+        public void itemRemoved(Item item) {
+            forget(item);
+        }
+
+        @Override
+        public void itemChanged(Item item) {
+        }
+
+        @Override
+        public void availabilityChanged(Item item) {
+            availabilityChanged.put(item.getItem_id(), item);
+        }
+    };
+    private volatile CountsListener countsListener;
+    private ScheduledExecutorService scheduler;
+
+    public PopularityRollup(Catalog catalog, LeaderboardService leaderboards, RelevanceIndex relevanceIndex) {
+        if (catalog == null || leaderboards == null || relevanceIndex == null) {
+            throw new IllegalArgumentException("Catalog, leaderboards and relevance index cannot be null");
+        }
+        this.catalog = catalog;
+        this.leaderboards = leaderboards;
+        this.relevanceIndex = relevanceIndex;
+        catalog.addItemListener(itemListener);
+    }
+
+    public void setCountsListener(CountsListener listener) {
+        this.countsListener = listener;
+    }
+
+    // Returns the number of items whose counters moved since the last roll-up.
+    public synchronized int rollup() {
+        int changed = 0;
+        boolean viewsMoved = false;
+        List<Item> candidates = catalog.getAvailableItems();
+        for (Item item : new ArrayList<>(availabilityChanged.values())) {
+            availabilityChanged.remove(item.getItem_id(), item);
+            // Still-available ones are already in the live list
+            if (!item.isAvailable() && catalog.getItemById(item.getItem_id()) == item) {
+                candidates.add(item);
+            }
+        }
+        for (Item item : candidates) {
+            try {
+                String id = item.getItem_id();
+                long views = item.getTotal_views();
+                long viewDelta = views - rolledViews.getOrDefault(id, 0L);
+                long downloads = 0;
+                boolean moved = false;
+                if (viewDelta > 0) {
+                    leaderboards.recordViews(item, viewDelta);
+                    relevanceIndex.updateViews(item, views);
+                    rolledViews.put(id, views);
+                    moved = true;
+                    viewsMoved = true;
+                }
+                if (item instanceof FreeResource) {
+                    FreeResource resource = (FreeResource) item;
+                    downloads = resource.getTotal_downloads();
+                    long downloadDelta = downloads - rolledDownloads.getOrDefault(id, 0L);
+                    if (downloadDelta > 0) {
+                        leaderboards.recordDownloads(resource, downloadDelta);
+                        rolledDownloads.put(id, downloads);
+                        moved = true;
+                    }
+                }
+                if (moved) {
+                    changed++;
+                    CountsListener listener = countsListener;
+                    if (listener != null) {
+                        listener.countsRolled(item, views, downloads);
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Error rolling up item popularity: " + e.getMessage());
+            }
+        }
+        if (viewsMoved) {
+            catalog.markRankingChanged();
+        }
+        return changed;
+    }
+
+    private synchronized void forget(Item item) {
+        availabilityChanged.remove(item.getItem_id());
+        rolledViews.remove(item.getItem_id());
+        rolledDownloads.remove(item.getItem_id());
+    }
+
+    public void start() {
+        start(DEFAULT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public synchronized void start(long interval, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Popularity roll-up is already running");
+        }
+        if (interval <= 0 || unit == null) {
+            throw new IllegalArgumentException("Roll-up interval must be positive");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "popularity-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                rollup();
+            } catch (Exception e) {
+                System.err.println("Error running popularity roll-up: " + e.getMessage());
+            }
+        }, interval, interval, unit);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.studentexchange.services;
+
+import com.studentexchange.models.Book;
+import com.studentexchange.models.FacetCounts;
+import com.studentexchange.models.Item;
+import com.studentexchange.models.Notes;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index that ranks items with BM25F: per-field term frequencies are
+// length-normalised against running field averages, weighted per field and
+// saturated once per term. Popularity (views) and seller rating add a bounded
+// boost. Queries use WAND: each term carries an upper bound on its
+// contribution, and documents that cannot beat the current K-th best score
+// are skipped without being scored. Removed and re-indexed documents leave
+// tombstones in the postings; IDF counts live documents only, and the postings
+// are rebuilt without tombstones once they make up a quarter of the index.
+public class RelevanceIndex {
+    private static final int TITLE = 0;
+    private static final int SUBJECT = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int AUTHOR = 3;
+    private static final int CHAPTERS = 4;
+    private static final int FIELD_COUNT = 5;
+    private static final float[] FIELD_WEIGHTS = {3.0f, 2.0f, 1.0f, 2.0f, 1.0f};
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double VIEW_BOOST = 0.5;
+    private static final double RATING_BOOST = 0.5;
+    private static final double MAX_BOOST = VIEW_BOOST + RATING_BOOST;
+    private static final int COMPACT_MIN_REMOVED = 64;
+
+    private static class Postings {
+        int size;
+        // Postings of documents not yet removed; the document frequency for IDF
+        int live;
+        int[] docs = new int[4];
+        int[] tfs = new int[4 * FIELD_COUNT];
+        // Largest weighted raw term frequency in the list, used for the WAND bound
+        double maxWeightedTf;
+
+        void add(int doc, int[] fieldTfs) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2 * FIELD_COUNT);
+            }
+            docs[size] = doc;
+            double weighted = 0;
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                tfs[size * FIELD_COUNT + f] = fieldTfs[f];
+                weighted += FIELD_WEIGHTS[f] * fieldTfs[f];
+            }
+            maxWeightedTf = Math.max(maxWeightedTf, weighted);
+            size++;
+            live++;
+        }
+    }
+
+    private static class Cursor {
+        final Postings postings;
+        final double idf;
+        final double upperBound;
+        int position;
+
+        Cursor(Postings postings, double idf, double upperBound) {
+            this.postings = postings;
+            this.idf = idf;
+            this.upperBound = upperBound;
+        }
+
+        int doc() {
+            return position < postings.size ? postings.docs[position] : Integer.MAX_VALUE;
+        }
+
+        // Skips forward to the first posting at or after target
+        void advanceTo(int target) {
+            int low = position;
+            int high = postings.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (postings.docs[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            position = low;
+        }
+    }
+
+    private static class Scored {
+        final int doc;
+        final double score;
+
+        Scored(int doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    private final List<Item> docs = new ArrayList<>();
+    private final List<int[]> fieldLengths = new ArrayList<>();
+    // Indexed text of each document, to find its terms again when it is removed
+    private final List<String[]> docFields = new ArrayList<>();
+    private final long[] totalFieldLengths = new long[FIELD_COUNT];
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    // View counts as of the last popularity roll-up, so the boost only moves
+    // when the roll-up runs and invalidates cached rankings
+    private long[] docViews = new long[16];
+    // Removed documents stay in the postings as tombstones and are skipped
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            if (docIds.containsKey(item.getItem_id())) {
+                throw new IllegalArgumentException("Item " + item.getItem_id() + " is already indexed");
+            }
+            insert(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces an edited item's postings; an item not yet indexed is simply added.
+    // Edits that leave every indexed field as it was, such as a grade change,
+    // cost nothing.
+    public void reindex(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIds.get(item.getItem_id());
+            if (doc != null && docs.get(doc) == item && Arrays.equals(docFields.get(doc), fieldsOf(item))) {
+                return;
+            }
+            delete(item);
+            insert(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateViews(Item item, long views) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIds.get(item.getItem_id());
+            if (doc != null) {
+                docViews[doc] = views;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(Item item) {
+        int doc = docs.size();
+        String[] fields = fieldsOf(item);
+        int[] lengths = new int[FIELD_COUNT];
+        Map<String, int[]> termTfs = new HashMap<>();
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            for (String term : tokenize(fields[f])) {
+                termTfs.computeIfAbsent(term, k -> new int[FIELD_COUNT])[f]++;
+                lengths[f]++;
+            }
+            totalFieldLengths[f] += lengths[f];
+        }
+        for (Map.Entry<String, int[]> entry : termTfs.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new Postings()).add(doc, entry.getValue());
+        }
+        docs.add(item);
+        fieldLengths.add(lengths);
+        docFields.add(fields);
+        docIds.put(item.getItem_id(), doc);
+        if (doc == docViews.length) {
+            docViews = Arrays.copyOf(docViews, doc * 2);
+        }
+        docViews[doc] = item.getTotal_views();
+    }
+
+    public boolean remove(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            return delete(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean delete(Item item) {
+        Integer doc = docIds.remove(item.getItem_id());
+        if (doc == null) {
+            return false;
+        }
+        int[] lengths = fieldLengths.get(doc);
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            totalFieldLengths[f] -= lengths[f];
+        }
+        Set<String> terms = new HashSet<>();
+        for (String field : docFields.get(doc)) {
+            terms.addAll(tokenize(field));
+        }
+        for (String term : terms) {
+            postings.get(term).live--;
+        }
+        docs.set(doc, null);
+        docFields.set(doc, null);
+        removed.set(doc);
+        removedCount++;
+        if (removedCount >= COMPACT_MIN_REMOVED && removedCount * 4 >= docs.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    // Renumbers the live documents densely, in their existing order, and rebuilds
+    // every postings list without tombstones. Terms left with no documents go.
+    private void compact() {
+        int[] renumbered = new int[docs.size()];
+        List<Item> liveDocs = new ArrayList<>(docs.size() - removedCount);
+        List<int[]> liveLengths = new ArrayList<>(liveDocs.size());
+        List<String[]> liveFields = new ArrayList<>(liveDocs.size());
+        long[] liveViews = new long[Math.max(16, docs.size() - removedCount)];
+        for (int doc = 0; doc < docs.size(); doc++) {
+            if (removed.get(doc)) {
+                renumbered[doc] = -1;
+                continue;
+            }
+            renumbered[doc] = liveDocs.size();
+            liveViews[liveDocs.size()] = docViews[doc];
+            liveDocs.add(docs.get(doc));
+            liveLengths.add(fieldLengths.get(doc));
+            liveFields.add(docFields.get(doc));
+        }
+        int[] fieldTfs = new int[FIELD_COUNT];
+        Iterator<Map.Entry<String, Postings>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Postings> entry = entries.next();
+            Postings list = entry.getValue();
+            if (list.live == 0) {
+                entries.remove();
+                continue;
+            }
+            Postings rebuilt = new Postings();
+            for (int i = 0; i < list.size; i++) {
+                int doc = renumbered[list.docs[i]];
+                if (doc >= 0) {
+                    System.arraycopy(list.tfs, i * FIELD_COUNT, fieldTfs, 0, FIELD_COUNT);
+                    rebuilt.add(doc, fieldTfs);
+                }
+            }
+            entry.setValue(rebuilt);
+        }
+        docs.clear();
+        docs.addAll(liveDocs);
+        fieldLengths.clear();
+        fieldLengths.addAll(liveLengths);
+        docFields.clear();
+        docFields.addAll(liveFields);
+        docViews = liveViews;
+        docIds.replaceAll((id, doc) -> renumbered[doc]);
+        removed.clear();
+        removedCount = 0;
+    }
+
+    public List<Item> search(String query, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Result count must be positive");
+        }
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            int n = docs.size() - removedCount;
+            double[] averageLengths = new double[FIELD_COUNT];
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                averageLengths[f] = n == 0 ? 0 : (double) totalFieldLengths[f] / n;
+            }
+            List<Cursor> cursors = new ArrayList<>();
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null || list.live == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (Math.max(0, n - list.live) + 0.5) / (list.live + 0.5));
+                // Length normalisation never shrinks a field below (1 - B) of its raw tf
+                double bestTf = list.maxWeightedTf / (1 - B);
+                cursors.add(new Cursor(list, idf, idf * bestTf * (K1 + 1) / (bestTf + K1)));
+            }
+            PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble((Scored s) -> s.score));
+            Comparator<Cursor> byDoc = Comparator.comparingInt(Cursor::doc);
+            while (true) {
+                cursors.removeIf(c -> c.doc() == Integer.MAX_VALUE);
+                if (cursors.isEmpty()) {
+                    break;
+                }
+                cursors.sort(byDoc);
+                double threshold = top.size() < k ? Double.NEGATIVE_INFINITY : top.peek().score;
+                double bound = MAX_BOOST;
+                int pivot = -1;
+                for (int i = 0; i < cursors.size(); i++) {
+                    bound += cursors.get(i).upperBound;
+                    if (bound > threshold) {
+                        pivot = i;
+                        break;
+                    }
+                }
+                if (pivot < 0) {
+                    break;
+                }
+                int pivotDoc = cursors.get(pivot).doc();
+                if (cursors.get(0).doc() == pivotDoc && !isLive(pivotDoc)) {
+                    for (Cursor cursor : cursors) {
+                        if (cursor.doc() != pivotDoc) {
+                            break;
+                        }
+                        cursor.position++;
+                    }
+                } else if (cursors.get(0).doc() == pivotDoc) {
+                    double score = boost(pivotDoc);
+                    for (Cursor cursor : cursors) {
+                        if (cursor.doc() != pivotDoc) {
+                            break;
+                        }
+                        score += termScore(cursor, fieldLengths.get(pivotDoc), averageLengths);
+                        cursor.position++;
+                    }
+                    if (score > threshold) {
+                        top.add(new Scored(pivotDoc, score));
+                        if (top.size() > k) {
+                            top.poll();
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < pivot; i++) {
+                        cursors.get(i).advanceTo(pivotDoc);
+                    }
+                }
+            }
+            List<Scored> ordered = new ArrayList<>(top);
+            ordered.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Integer.compare(a.doc, b.doc));
+            List<Item> results = new ArrayList<>(ordered.size());
+            for (Scored scored : ordered) {
+                results.add(docs.get(scored.doc));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Facet counts over every item matching any query term. Matches are unioned
+    // into a bitset straight from the postings, so no result list is built.
+    public FacetCounts facets(String query) {
+        FacetCounts facets = new FacetCounts();
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet(docs.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    matches.set(list.docs[i]);
+                }
+            }
+            matches.andNot(removed);
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                if (isLive(doc)) {
+                    facets.add(docs.get(doc));
+                }
+            }
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size() - removedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ranked results cover live inventory only; sold items are skipped like tombstones
+    private boolean isLive(int doc) {
+        if (removed.get(doc)) {
+            return false;
+        }
+        try {
+            return docs.get(doc).isAvailable();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private double termScore(Cursor cursor, int[] lengths, double[] averageLengths) {
+        int base = cursor.position * FIELD_COUNT;
+        double tf = 0;
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            int fieldTf = cursor.postings.tfs[base + f];
+            if (fieldTf == 0) {
+                continue;
+            }
+            double norm = averageLengths[f] > 0 ? 1 - B + B * lengths[f] / averageLengths[f] : 1;
+            tf += FIELD_WEIGHTS[f] * fieldTf / norm;
+        }
+        return cursor.idf * tf * (K1 + 1) / (tf + K1);
+    }
+
+    private double boost(int doc) {
+        try {
+            Item item = docs.get(doc);
+            double views = docViews[doc];
+            double viewBoost = VIEW_BOOST * (1 - 1 / (1 + Math.log1p(views)));
+            double ratingBoost = RATING_BOOST * Math.min(5, Math.max(0, item.getUploader().getAverage_rating())) / 5;
+            return viewBoost + ratingBoost;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    static String[] fieldsOf(Item item) {
+        String[] fields = new String[FIELD_COUNT];
+        fields[TITLE] = item.getTitle();
+        fields[SUBJECT] = item.getSubject();
+        fields[DESCRIPTION] = item.getDescription();
+        if (item instanceof Book) {
+            fields[AUTHOR] = ((Book) item).getAuthor();
+        }
+        if (item instanceof Notes) {
+            fields[CHAPTERS] = String.join(" ", ((Notes) item).getChapters());
+        }
+        return fields;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,78 @@
+package com.studentexchange.services;
+
+import com.studentexchange.models.RatingSummary;
+import com.studentexchange.models.Review;
+import com.studentexchange.models.Transaction;
+import com.studentexchange.models.User;
+import java.util.*;
+
+// Holds every review, indexed by reviewed user and by transaction, and keeps a
+// running count/sum/histogram per reviewed user so ratings are never recomputed.
+public class ReviewStore {
+    private static class Aggregate {
+        int count;
+        long sum;
+        final int[] histogram = new int[5];
+        RatingSummary snapshot = RatingSummary.EMPTY;
+
+        void add(int rating) {
+            count++;
+            sum += rating;
+            histogram[rating - 1]++;
+            snapshot = new RatingSummary(count, sum, histogram);
+        }
+    }
+
+    private final Map<String, List<Review>> byReviewedUser = new HashMap<>();
+    private final Map<String, List<Review>> byTransaction = new HashMap<>();
+    private final Map<String, Aggregate> aggregates = new HashMap<>();
+    private final Set<String> reviewIds = new HashSet<>();
+
+    // Returns the reviewed user's updated summary.
+    public synchronized RatingSummary addReview(Review review) {
+        try {
+            if (review == null) {
+                throw new IllegalArgumentException("Review cannot be null");
+            }
+            if (!reviewIds.add(review.getReview_id())) {
+                throw new IllegalArgumentException("Review " + review.getReview_id() + " is already stored");
+            }
+            String reviewedId = review.getReviewed_user().getUser_id();
+            byReviewedUser.computeIfAbsent(reviewedId, k -> new ArrayList<>()).add(review);
+            byTransaction.computeIfAbsent(review.getTransaction().getTransaction_id(), k -> new ArrayList<>()).add(review);
+            Aggregate aggregate = aggregates.computeIfAbsent(reviewedId, k -> new Aggregate());
+            aggregate.add(review.getRating());
+            return aggregate.snapshot;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to store review: " + e.getMessage());
+        }
+    }
+
+    public synchronized List<Review> getReviewsFor(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        List<Review> reviews = byReviewedUser.get(user.getUser_id());
+        return reviews != null ? new ArrayList<>(reviews) : new ArrayList<>();
+    }
+
+    public synchronized List<Review> getReviewsForTransaction(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        List<Review> reviews = byTransaction.get(transaction.getTransaction_id());
+        return reviews != null ? new ArrayList<>(reviews) : new ArrayList<>();
+    }
+
+    public synchronized RatingSummary getSummary(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        Aggregate aggregate = aggregates.get(user.getUser_id());
+        return aggregate != null ? aggregate.snapshot : RatingSummary.EMPTY;
+    }
+
+    public synchronized int size() {
+        return reviewIds.size();
+    }
+}
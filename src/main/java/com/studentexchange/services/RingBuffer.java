@@ -0,0 +1,72 @@
+package com.studentexchange.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded lock-free multi-producer / single-consumer queue. Each slot carries
+// a sequence number: producers claim a position with one CAS on the tail and
+// publish by advancing the slot's sequence; the single consumer reads slots in
+// order without any atomic read-modify-write.
+public class RingBuffer<E> {
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // Returns false instead of blocking when the buffer is full
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    // Must only be called from the single consumer thread
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = (E) slots[index];
+        slots[index] = null;
+        sequences.set(index, position + slots.length);
+        head = position + 1;
+        return element;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public int size() {
+        return (int) Math.max(0, Math.min(slots.length, tail.get() - head));
+    }
+}
@@ -0,0 +1,108 @@
+package com.studentexchange.services;
+
+import com.studentexchange.enums.Category;
+import com.studentexchange.enums.Condition;
+import com.studentexchange.enums.GradeLevel;
+import com.studentexchange.models.Catalog;
+import com.studentexchange.models.Item;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// LRU cache of query results keyed by the normalised query or filter tuple.
+// Each key is normalised exactly as the query it caches normalises its input,
+// so two queries share an entry only if they would return the same results.
+// Each entry remembers the catalog epoch it was computed at: the category epoch
+// when the query is limited to one category, the global version otherwise.
+// A lookup whose epoch has moved on is treated as a miss, so adding or selling
+// an item only invalidates the results it could affect.
+public class SearchCache {
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static class Entry {
+        final List<Item> results;
+        final long epoch;
+
+        Entry(List<Item> results, long epoch) {
+            this.results = results;
+            this.epoch = epoch;
+        }
+    }
+
+    private final Catalog catalog;
+    private final LinkedHashMap<String, Entry> entries;
+    private long hits;
+    private long misses;
+
+    public SearchCache(Catalog catalog) {
+        this(catalog, DEFAULT_MAX_ENTRIES);
+    }
+
+    public SearchCache(Catalog catalog, int maxEntries) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.catalog = catalog;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public List<Item> search(String keyword) {
+        String key = "S|" + Item.normalizeSearchText(keyword);
+        return lookup(key, null, () -> catalog.search(keyword));
+    }
+
+    public List<Item> ranked(String query, int k, Supplier<List<Item>> loader) {
+        String key = "R|" + k + "|" + String.join(" ", new LinkedHashSet<>(RelevanceIndex.tokenize(query)));
+        return lookup(key, null, loader);
+    }
+
+    public List<Item> filter(Category category, GradeLevel grade, Float minPrice, Float maxPrice, String subject, Condition condition) {
+        String key = "F|" + category + "|" + grade + "|" + minPrice + "|" + maxPrice + "|" + Catalog.normalizeSubject(subject) + "|" + condition;
+        return lookup(key, category, () -> catalog.filterItems(category, grade, minPrice, maxPrice, subject, condition));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private List<Item> lookup(String key, Category category, Supplier<List<Item>> loader) {
+        // Read the epoch before computing so a concurrent mutation makes the entry stale, never hides it
+        long epoch = epochFor(category);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.epoch == epoch) {
+                hits++;
+                return new ArrayList<>(entry.results);
+            }
+            misses++;
+        }
+        List<Item> results = loader.get();
+        synchronized (this) {
+            entries.put(key, new Entry(new ArrayList<>(results), epoch));
+        }
+        return results;
+    }
+
+    private long epochFor(Category category) {
+        return category != null ? catalog.getCategoryEpoch(category) : catalog.getVersion();
+    }
+}
@@ -0,0 +1,182 @@
+package com.studentexchange.services;
+
+import com.studentexchange.enums.ShippingStatus;
+import com.studentexchange.models.Transaction;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Watches open transactions for shipping deadlines. Deadlines sit in a priority
+// queue ordered by due time, so each tick only pops the entries that have
+// expired. An entry whose transaction has since moved on is dropped when popped.
+public class ShippingSlaMonitor {
+    private static final long DEFAULT_NOT_SHIPPED_SLA = TimeUnit.DAYS.toMillis(3);
+    private static final long DEFAULT_SHIPPED_SLA = TimeUnit.DAYS.toMillis(7);
+    private static final long DEFAULT_TICK_SECONDS = 60;
+
+    public interface SlaListener {
+        void onSlaExpired(Transaction transaction, ShippingStatus status, long overdueMillis);
+    }
+
+    private static class Deadline {
+        final Transaction transaction;
+        final ShippingStatus status;
+        final long due;
+
+        Deadline(Transaction transaction, ShippingStatus status, long due) {
+            this.transaction = transaction;
+            this.status = status;
+            this.due = due;
+        }
+    }
+
+    private final long notShippedSlaMillis;
+    private final long shippedSlaMillis;
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>(Comparator.comparingLong((Deadline d) -> d.due));
+    private final Map<String, Deadline> active = new HashMap<>();
+    private final List<SlaListener> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    public ShippingSlaMonitor() {
+        this(DEFAULT_NOT_SHIPPED_SLA, DEFAULT_SHIPPED_SLA, TimeUnit.MILLISECONDS);
+    }
+
+    public ShippingSlaMonitor(long notShippedSla, long shippedSla, TimeUnit unit) {
+        if (unit == null) {
+            throw new IllegalArgumentException("Time unit cannot be null");
+        }
+        if (notShippedSla <= 0 || shippedSla <= 0) {
+            throw new IllegalArgumentException("SLA durations must be positive");
+        }
+        this.notShippedSlaMillis = unit.toMillis(notShippedSla);
+        this.shippedSlaMillis = unit.toMillis(shippedSla);
+    }
+
+    public void addListener(SlaListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(SlaListener listener) {
+        listeners.remove(listener);
+    }
+
+    // A listener that writes one line per expired deadline to the given stream
+    public static SlaListener logTo(PrintStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream cannot be null");
+        }
+        return (transaction, status, overdueMillis) -> out.println("Shipping SLA expired: " + describe(transaction, status, overdueMillis));
+    }
+
+    public static String describe(Transaction transaction, ShippingStatus status, long overdueMillis) {
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(Math.max(overdueMillis, 0));
+        return transaction.getTransaction_id() + " (" + transaction.getItem().getTitle() + ") is still " + status
+                + ", overdue by " + (minutes / 60) + "h " + (minutes % 60) + "m";
+    }
+
+    // Schedules the deadline for the transaction's current shipping status,
+    // replacing any earlier one. Delivered transactions stop being tracked.
+    public synchronized void track(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        String id = transaction.getTransaction_id();
+        ShippingStatus status = transaction.getShipping_status();
+        Date since;
+        long sla;
+        switch (status) {
+            case NOT_SHIPPED:
+                since = transaction.getTransaction_date();
+                sla = notShippedSlaMillis;
+                break;
+            case SHIPPED:
+                since = transaction.getShipping_date();
+                sla = shippedSlaMillis;
+                break;
+            default:
+                active.remove(id);
+                return;
+        }
+        long start = since != null ? since.getTime() : System.currentTimeMillis();
+        Deadline deadline = new Deadline(transaction, status, start + sla);
+        active.put(id, deadline);
+        deadlines.add(deadline);
+    }
+
+    public synchronized void untrack(Transaction transaction) {
+        if (transaction != null) {
+            active.remove(transaction.getTransaction_id());
+        }
+    }
+
+    public int tick() {
+        return tick(System.currentTimeMillis());
+    }
+
+    // Fires listeners for every deadline due at or before now and returns how many fired.
+    public int tick(long now) {
+        List<Deadline> expired = new ArrayList<>();
+        synchronized (this) {
+            while (!deadlines.isEmpty() && deadlines.peek().due <= now) {
+                Deadline deadline = deadlines.poll();
+                String id = deadline.transaction.getTransaction_id();
+                if (active.get(id) != deadline) {
+                    continue;
+                }
+                active.remove(id);
+                if (deadline.transaction.getShipping_status() == deadline.status) {
+                    expired.add(deadline);
+                }
+            }
+        }
+        for (Deadline deadline : expired) {
+            for (SlaListener listener : listeners) {
+                try {
+                    listener.onSlaExpired(deadline.transaction, deadline.status, now - deadline.due);
+                } catch (Exception e) {
+                    System.err.println("Error in SLA listener: " + e.getMessage());
+                }
+            }
+        }
+        return expired.size();
+    }
+
+    public synchronized int getPendingCount() {
+        return active.size();
+    }
+
+    public void start() {
+        start(DEFAULT_TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public synchronized void start(long tickInterval, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("SLA monitor is already running");
+        }
+        if (tickInterval <= 0 || unit == null) {
+            throw new IllegalArgumentException("Tick interval must be positive");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shipping-sla-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (Exception e) {
+                System.err.println("Error running SLA tick: " + e.getMessage());
+            }
+        }, tickInterval, tickInterval, unit);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.studentexchange.services;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fixed pool of locks addressed by key hash. Callers that need several keys
+// get their stripes acquired in ascending index order, so two operations can
+// never hold one stripe each while waiting on the other's.
+public class StripedLocks {
+    public static final int DEFAULT_STRIPES = 64;
+
+    // The stripes taken by one lock() call; release them in a finally block
+    public interface Held {
+        void unlock();
+    }
+
+    private final ReentrantLock[] stripes;
+
+    public StripedLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public StripedLocks(int count) {
+        if (count < 1 || Integer.bitCount(count) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two");
+        }
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Held lock(String... keys) {
+        return lock(Arrays.asList(keys));
+    }
+
+    public Held lock(Collection<String> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String key : keys) {
+            if (key != null) {
+                indexes.add(indexFor(key));
+            }
+        }
+        int[] taken = new int[indexes.size()];
+        int count = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                taken[count++] = index;
+            }
+        } catch (RuntimeException e) {
+            release(taken, count);
+            throw e;
+        }
+        int held = count;
+        return () -> release(taken, held);
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    private int indexFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+
+    private void release(int[] taken, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[taken[i]].unlock();
+        }
+    }
+}
@@ -3,17 +3,109 @@ package com.studentexchange.services;
 import com.studentexchange.models.*;
 import com.studentexchange.enums.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class StudentBookExchange {
-    private Map<String, User> users = new HashMap<>();
+    public static final long DEFAULT_ARCHIVE_AGE_DAYS = 30;
+    public static final long DEFAULT_ARCHIVE_INTERVAL_MINUTES = 60;
+
+    // Told about every successful state change, with the IDs it produced, so the
+    // change can be logged and replayed elsewhere. Called on the mutating thread
+    // while that mutation's locks are held, so listeners must be quick.
+    public interface MutationListener {
+        void onMutation(MutationType type, List<String> fields);
+    }
+
+    private Map<String, User> users = new ConcurrentHashMap<>();
     private Catalog catalog = new Catalog();
-    private List<Transaction> transactions = new ArrayList<>();
+    // Keyed by ID in creation order, so archiving drops a transaction in O(1)
+    private Map<String, Transaction> transactions = Collections.synchronizedMap(new LinkedHashMap<>());
+    private TransactionIndex transactionIndex = new TransactionIndex();
+    private ShippingSlaMonitor shippingSlaMonitor = new ShippingSlaMonitor();
+    private CreditSystem creditSystem = new CreditSystem();
+    private CreditLedger creditLedger = new CreditLedger(creditSystem);
+    private IdempotencyCache<Transaction> purchaseKeys = new IdempotencyCache<>();
+    private ReviewStore reviewStore = new ReviewStore();
+    private LeaderboardService leaderboards = new LeaderboardService();
+    private RelevanceIndex relevanceIndex = new RelevanceIndex();
+    private PopularityRollup popularityRollup = new PopularityRollup(catalog, leaderboards, relevanceIndex);
+    private AutocompleteIndex autocompleteIndex = new AutocompleteIndex();
+    private FuzzyMatcher fuzzyMatcher = new FuzzyMatcher();
+    private SearchCache searchCache = new SearchCache(catalog);
+    // Purchases lock only the buyer, seller and item they touch
+    private StripedLocks stripes = new StripedLocks();
+    private final List<MutationListener> mutationListeners = new CopyOnWriteArrayList<>();
+    // Cold tier; null until enableArchive is called
+    private volatile ArchiveStore archive;
+    private volatile long archiveAfterMillis;
+    private ScheduledExecutorService archiveScheduler;
+    // IDs of bulk-imported items whose indexing waits for indexImported
+    private final Set<String> deferredIndexing = ConcurrentHashMap.newKeySet();
 
     public StudentBookExchange() {
         try {
-            this.users = new HashMap<>();
+            this.users = new ConcurrentHashMap<>();
             this.catalog = new Catalog();
-            this.transactions = new ArrayList<>();
+            this.transactions = Collections.synchronizedMap(new LinkedHashMap<>());
+            this.transactionIndex = new TransactionIndex();
+            this.shippingSlaMonitor = new ShippingSlaMonitor();
+            this.creditSystem = new CreditSystem();
+            this.creditLedger = new CreditLedger(creditSystem);
+            this.purchaseKeys = new IdempotencyCache<>();
+            this.reviewStore = new ReviewStore();
+            this.leaderboards = new LeaderboardService();
+            this.relevanceIndex = new RelevanceIndex();
+            this.popularityRollup = new PopularityRollup(catalog, leaderboards, relevanceIndex);
+            this.autocompleteIndex = new AutocompleteIndex();
+            this.fuzzyMatcher = new FuzzyMatcher();
+            this.searchCache = new SearchCache(catalog);
+            this.stripes = new StripedLocks();
+            creditLedger.watch(stripes, (user, points, reason) ->
+                    publish(MutationType.ADJUST_CREDITS, user.getUser_id(), points, reason));
+            popularityRollup.setCountsListener((item, views, downloads) ->
+                    publish(MutationType.ITEM_COUNTS, item.getItem_id(), views, downloads));
+            catalog.addItemListener(new Catalog.ItemListener() {
+                @Override
+                public void itemsAdded(List<? extends Item> items) {
+                    for (Item item : items) {
+                        publishAdded(item);
+                        if (!deferredIndexing.contains(item.getItem_id())) {
+                            index(item);
+                        }
+                    }
+                }
+
+                @Override
+                public void itemRemoved(Item item) {
+                    publish(MutationType.REMOVE_ITEM, item.getItem_id());
+                    relevanceIndex.remove(item);
+                    autocompleteIndex.remove(item);
+                    fuzzyMatcher.remove(item);
+                    leaderboards.removeItem(item);
+                }
+
+                @Override
+                public void itemChanged(Item item) {
+                    publish(MutationType.EDIT_ITEM, item.getItem_id(), item.getTitle(), item.getDescription(),
+                            item.getCategory(), item.getGrade(), item.getSubject());
+                    if (deferredIndexing.contains(item.getItem_id())) {
+                        return;
+                    }
+                    relevanceIndex.reindex(item);
+                    autocompleteIndex.update(item);
+                    fuzzyMatcher.update(item);
+                    catalog.markChanged(item);
+                }
+
+                // Search results filter sold items at query time; nothing to reindex
+                @Override
+                public void availabilityChanged(Item item) {
+                }
+            });
         } catch (Exception e) {
             throw new RuntimeException("Failed to create StudentBookExchange: " + e.getMessage());
         }
@@ -23,24 +115,103 @@ public class StudentBookExchange {
         return catalog;
     }
 
+    public LeaderboardService getLeaderboards() {
+        return leaderboards;
+    }
+
+    public PopularityRollup getPopularityRollup() {
+        return popularityRollup;
+    }
+
+    public ReviewStore getReviewStore() {
+        return reviewStore;
+    }
+
+    public CreditLedger getCreditLedger() {
+        return creditLedger;
+    }
+
+    public ShippingSlaMonitor getShippingSlaMonitor() {
+        return shippingSlaMonitor;
+    }
+
     public List<Transaction> getTransactions() {
-        return new ArrayList<>(transactions);
+        synchronized (transactions) {
+            return new ArrayList<>(transactions.values());
+        }
     }
 
     public Map<String, User> getUsers() {
         return new HashMap<>(users);
     }
 
+    public User getUser(String userId) {
+        return userId != null ? users.get(userId) : null;
+    }
+
+    public void addMutationListener(MutationListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        mutationListeners.add(listener);
+    }
+
+    public void removeMutationListener(MutationListener listener) {
+        mutationListeners.remove(listener);
+    }
+
+    private void publish(MutationType type, Object... fields) {
+        if (mutationListeners.isEmpty()) {
+            return;
+        }
+        List<String> values = new ArrayList<>(fields.length);
+        for (Object field : fields) {
+            values.add(field != null ? String.valueOf(field) : null);
+        }
+        values = Collections.unmodifiableList(values);
+        for (MutationListener listener : mutationListeners) {
+            try {
+                listener.onMutation(type, values);
+            } catch (Exception e) {
+                System.err.println("Error in mutation listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void publishUser(User user) {
+        // Only the password's salted hash is logged
+        publish(MutationType.REGISTER_USER, user.getUser_id(), user.getName(), user.getCnic(), user.getEmail(),
+                user.getPassword_hash(), user.getPhone(), user.getAddress());
+    }
+
     public void adduser(User user) {
         if (user != null) {
             users.put(user.getUser_id(), user);
+            publishUser(user);
+        }
+    }
+
+    // Profile edits go through here rather than the User setters so they are
+    // published; the email is applied first and put back if the rest fails
+    public void updateProfile(User user, String name, String email, String phone, String address) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        String previousEmail = user.getEmail();
+        user.setEmail(email);
+        try {
+            user.updateProfile(name, phone, address);
+        } catch (IllegalArgumentException e) {
+            user.setEmail(previousEmail);
+            throw e;
         }
+        publish(MutationType.UPDATE_PROFILE, user.getUser_id(), user.getName(), user.getEmail(), user.getPhone(), user.getAddress());
     }
 
     public User login(String email, String password) {
         String trimmedEmail = email.trim().toLowerCase();
         for (User user : users.values()) {
-            if (user.getEmail().equalsIgnoreCase(trimmedEmail) && user.getPassword().equals(password.trim())) {
+            if (user.getEmail().equalsIgnoreCase(trimmedEmail) && user.checkPassword(password.trim())) {
                 return user;
             }
         }
@@ -50,6 +221,7 @@ public class StudentBookExchange {
     public User registerUser(String name, String cnic, String email, String password, String phone, String address) {
         User newUser = new User(name.trim(), cnic.trim(), email.trim().toLowerCase(), password.trim(), phone.trim(), address.trim());
         users.put(newUser.getUser_id(), newUser);
+        publishUser(newUser);
         return newUser;
     }
 
@@ -59,7 +231,131 @@ public class StudentBookExchange {
         return book;
     }
 
+    // Bulk import path: the batch goes into the catalog in one pass and is
+    // replicated like individual uploads, but search indexing is deferred until
+    // indexImported is called once for the whole load
+    public void addImportedBooks(List<Book> books) {
+        for (Book book : books) {
+            deferredIndexing.add(book.getItem_id());
+        }
+        try {
+            catalog.addItems(books);
+        } catch (RuntimeException e) {
+            for (Book book : books) {
+                deferredIndexing.remove(book.getItem_id());
+            }
+            throw e;
+        }
+    }
+
+    public void indexImported(List<? extends Item> items) {
+        if (items == null) {
+            throw new IllegalArgumentException("Items cannot be null");
+        }
+        for (Item item : items) {
+            if (deferredIndexing.remove(item.getItem_id())) {
+                index(item);
+            }
+        }
+    }
+
+    // Every item that reaches the catalog is published from its added hook,
+    // however it got there. Books keep their upload entry; other kinds are
+    // described by class name and constructor fields.
+    private void publishAdded(Item item) {
+        if (item instanceof Book) {
+            Book book = (Book) item;
+            publish(MutationType.UPLOAD_BOOK, book.getItem_id(), book.getUploader().getUser_id(), book.getTitle(), book.getDescription(),
+                    book.getCategory(), book.getGrade(), book.getSubject(), book.getCondition(), book.getMarket_price(), book.getPrice(),
+                    book.getAuthor(), book.getEdition(), book.getPublisher(), book.getPages(), book.isIs_hardcover());
+            return;
+        }
+        List<Object> fields = new ArrayList<>(Arrays.<Object>asList(item.getItem_id(), item.getClass().getSimpleName(),
+                item.getUploader().getUser_id(), item.getTitle(), item.getDescription(), item.getCategory(), item.getGrade(),
+                item.getSubject()));
+        if (item instanceof FreeResource) {
+            FreeResource resource = (FreeResource) item;
+            fields.addAll(Arrays.<Object>asList(resource.getFile_url(), resource.isIs_university_paper(), resource.getUniversity(),
+                    resource.getCourse_code(), resource.getYear(), resource.getSemester(), resource.getExam_type(),
+                    resource.isHas_solutions(), resource.isIs_official(), resource.getFile_size(), resource.getFile_format()));
+        } else if (item instanceof ForSaleItem) {
+            ForSaleItem forSale = (ForSaleItem) item;
+            fields.addAll(Arrays.<Object>asList(forSale.getCondition(), forSale.getMarket_price(), forSale.getPrice()));
+            if (item instanceof Notes) {
+                Notes notes = (Notes) item;
+                fields.addAll(Arrays.<Object>asList(notes.getPages(), notes.getFormat_type(), notes.isIs_handwritten(),
+                        notes.isIs_scanned(), notes.getQuality()));
+            } else if (item instanceof PastPaper) {
+                PastPaper paper = (PastPaper) item;
+                fields.addAll(Arrays.<Object>asList(paper.getExam_board(), paper.getYear(), paper.isHas_answers(),
+                        paper.isHas_model_paper(), paper.isIs_solved(), paper.getTotal_papers(), paper.getSubject_code(),
+                        paper.isIs_compilation()));
+            }
+        }
+        publish(MutationType.ADD_ITEM, fields.toArray());
+    }
+
+    private void index(Item item) {
+        relevanceIndex.add(item);
+        autocompleteIndex.add(item);
+        fuzzyMatcher.add(item);
+        // Bump again so cached ranked results computed mid-indexing are discarded
+        catalog.markChanged(item);
+    }
+
+    // A retry carrying the same key returns the transaction created by the first
+    // attempt instead of purchasing again. Keys are scoped to the buyer.
+    public Transaction createTransaction(User buyer, Item item, PaymentMethod method, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            return createTransaction(buyer, item, method);
+        }
+        if (buyer == null) {
+            throw new RuntimeException("Transaction failed: Buyer cannot be null");
+        }
+        String scopedKey = buyer.getUser_id() + ":" + idempotencyKey.trim();
+        // The buyer's stripe is held across lookup and purchase, so concurrent
+        // retries with one key cannot both miss the cache
+        StripedLocks.Held held = stripes.lock(purchaseKeys(buyer, item));
+        try {
+            Transaction previous = purchaseKeys.get(scopedKey);
+            if (previous != null) {
+                if (item == null || !previous.getItem().getItem_id().equals(item.getItem_id())) {
+                    throw new RuntimeException("Transaction failed: Idempotency key was already used for a different item");
+                }
+                return previous;
+            }
+            Transaction transaction = purchase(buyer, item, method);
+            purchaseKeys.put(scopedKey, transaction);
+            return transaction;
+        } finally {
+            held.unlock();
+        }
+    }
+
     public Transaction createTransaction(User buyer, Item item, PaymentMethod method) {
+        StripedLocks.Held held = stripes.lock(purchaseKeys(buyer, item));
+        try {
+            return purchase(buyer, item, method);
+        } finally {
+            held.unlock();
+        }
+    }
+
+    private static List<String> purchaseKeys(User buyer, Item item) {
+        List<String> keys = new ArrayList<>(3);
+        if (buyer != null) {
+            keys.add(buyer.getUser_id());
+        }
+        if (item != null) {
+            keys.add(item.getItem_id());
+            if (item.getUploader() != null) {
+                keys.add(item.getUploader().getUser_id());
+            }
+        }
+        return keys;
+    }
+
+    private Transaction purchase(User buyer, Item item, PaymentMethod method) {
         try {
             if (!(item instanceof ForSaleItem)) {
                 throw new IllegalArgumentException("Item is not for sale");
@@ -69,10 +365,8 @@ public class StudentBookExchange {
 
             Transaction transaction = new Transaction(buyer, seller, forSaleItem, method);
             transaction.completePayment(method);
-            transactions.add(transaction);
-
-            buyer.addTransactionAsBuyer(transaction);
-            seller.addTransactionAsSeller(transaction);
+            recordTransaction(transaction);
+            publish(MutationType.PURCHASE, transaction.getTransaction_id(), buyer.getUser_id(), item.getItem_id(), method);
 
             return transaction;
         } catch (Exception e) {
@@ -80,7 +374,387 @@ public class StudentBookExchange {
         }
     }
 
+    // Buys every item in the basket or none of them. Credits are spread over the
+    // items in basket order, each item taking at most what covers its price.
+    public TransactionGroup checkout(User buyer, List<Item> basket, PaymentMethod method, int creditsToUse) {
+        List<String> keys = new ArrayList<>();
+        if (basket != null) {
+            for (Item item : basket) {
+                keys.addAll(purchaseKeys(buyer, item));
+            }
+        }
+        StripedLocks.Held held = stripes.lock(keys);
+        try {
+            if (buyer == null) {
+                throw new IllegalArgumentException("Buyer cannot be null");
+            }
+            if (method == null) {
+                throw new IllegalArgumentException("Payment method cannot be null");
+            }
+            if (basket == null || basket.isEmpty()) {
+                throw new IllegalArgumentException("Basket cannot be empty");
+            }
+            if (creditsToUse < 0) {
+                throw new IllegalArgumentException("Credits cannot be negative");
+            }
+            if (creditsToUse > buyer.getCredit_points()) {
+                throw new IllegalArgumentException("Buyer does not have enough credit points");
+            }
+            List<ForSaleItem> forSaleItems = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (Item item : basket) {
+                if (!(item instanceof ForSaleItem)) {
+                    throw new IllegalArgumentException("Item is not for sale: " + (item != null ? item.getTitle() : "null"));
+                }
+                ForSaleItem forSaleItem = (ForSaleItem) item;
+                if (!seen.add(forSaleItem.getItem_id())) {
+                    throw new IllegalArgumentException("Item appears twice in basket: " + forSaleItem.getTitle());
+                }
+                if (!forSaleItem.canBePurchased()) {
+                    throw new IllegalArgumentException("Item cannot be purchased: " + forSaleItem.getTitle());
+                }
+                if (forSaleItem.getUploader().equals(buyer)) {
+                    throw new IllegalArgumentException("You cannot purchase your own item: " + forSaleItem.getTitle());
+                }
+                forSaleItems.add(forSaleItem);
+            }
+
+            // Reserve every item first; a failure releases the ones already taken
+            List<Transaction> created = new ArrayList<>();
+            try {
+                for (ForSaleItem forSaleItem : forSaleItems) {
+                    created.add(new Transaction(buyer, forSaleItem.getUploader(), forSaleItem, method));
+                }
+            } catch (RuntimeException e) {
+                for (Transaction transaction : created) {
+                    transaction.getItem().cancelSale();
+                }
+                throw e;
+            }
+
+            int remainingCredits = creditsToUse;
+            for (Transaction transaction : created) {
+                if (remainingCredits <= 0) {
+                    break;
+                }
+                int coverable = (int) Math.floor(transaction.getItem().getPrice() / creditSystem.getCreditValue(1));
+                int credits = Math.min(remainingCredits, coverable);
+                if (credits > 0) {
+                    transaction.applyCredits(credits);
+                    remainingCredits -= transaction.getCredits_used();
+                }
+            }
+
+            List<Transaction> paid = new ArrayList<>();
+            try {
+                for (Transaction transaction : created) {
+                    transaction.completePayment(method);
+                    paid.add(transaction);
+                }
+            } catch (RuntimeException e) {
+                for (Transaction transaction : paid) {
+                    if (transaction.getCredits_used() > 0) {
+                        creditLedger.restore(buyer, transaction.getCredits_used(), "Checkout rollback " + transaction.getTransaction_id());
+                    }
+                }
+                for (Transaction transaction : created) {
+                    transaction.getItem().cancelSale();
+                }
+                throw e;
+            }
+
+            TransactionGroup group = new TransactionGroup(buyer, created);
+            for (Transaction transaction : created) {
+                recordTransaction(transaction);
+            }
+            // Fields: group, buyer, method, credits, item count, item IDs, then transaction IDs
+            List<Object> fields = new ArrayList<>(List.of(group.getGroup_id(), buyer.getUser_id(), method, creditsToUse, created.size()));
+            for (Transaction transaction : created) {
+                fields.add(transaction.getItem().getItem_id());
+            }
+            for (Transaction transaction : created) {
+                fields.add(transaction.getTransaction_id());
+            }
+            publish(MutationType.CHECKOUT, fields.toArray());
+            return group;
+        } catch (Exception e) {
+            throw new RuntimeException("Checkout failed: " + e.getMessage());
+        } finally {
+            held.unlock();
+        }
+    }
+
+    private void recordTransaction(Transaction transaction) {
+        transactions.put(transaction.getTransaction_id(), transaction);
+        transactionIndex.add(transaction);
+        shippingSlaMonitor.track(transaction);
+        transaction.getBuyer().addTransactionAsBuyer(transaction);
+        transaction.getSeller().addTransactionAsSeller(transaction);
+        catalog.markChanged(transaction.getItem());
+        leaderboards.recordSale(transaction);
+    }
+
+    public void viewItem(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        item.incrementViews();
+    }
+
+    public void downloadResource(FreeResource resource) {
+        if (resource == null) {
+            throw new IllegalArgumentException("Resource cannot be null");
+        }
+        resource.incrementDownload();
+    }
+
+    public void updateShippingStatus(Transaction transaction, ShippingStatus status) {
+        try {
+            if (transaction == null) {
+                throw new IllegalArgumentException("Transaction cannot be null");
+            }
+            StripedLocks.Held held = stripes.lock(transaction.getItem().getItem_id());
+            try {
+                transaction.updateShippingStatus(status);
+                transactionIndex.updateStatus(transaction);
+                shippingSlaMonitor.track(transaction);
+                publish(MutationType.UPDATE_SHIPPING, transaction.getTransaction_id(), status);
+            } finally {
+                held.unlock();
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to update shipping: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Failed to update shipping: " + e.getMessage());
+        }
+    }
+
+    public Review submitReview(User reviewer, User reviewed, Transaction transaction, int rating, String comment) {
+        List<String> keys = new ArrayList<>(purchaseKeys(reviewer, transaction != null ? transaction.getItem() : null));
+        if (reviewed != null) {
+            keys.add(reviewed.getUser_id());
+        }
+        StripedLocks.Held held = stripes.lock(keys);
+        try {
+            Review review = new Review(rating, comment, reviewed, reviewer, transaction);
+            transaction.recordReview(review);
+            RatingSummary summary = reviewStore.addReview(review);
+            reviewed.setAverage_rating(summary.getAverage());
+            // The rating feeds the ranking boost of every item the seller lists
+            catalog.markRankingChanged();
+            leaderboards.recordRating(reviewed, summary);
+            creditLedger.awardReviewCredits(reviewer);
+            publish(MutationType.SUBMIT_REVIEW, review.getReview_id(), reviewer.getUser_id(), reviewed.getUser_id(),
+                    transaction.getTransaction_id(), rating, comment);
+            return review;
+        } catch (Exception e) {
+            throw new RuntimeException("Review failed: " + e.getMessage());
+        } finally {
+            held.unlock();
+        }
+    }
+
+    // Delivered, paid transactions older than the given age (counted from
+    // delivery) are moved, with the items they sold, to the archive
+    public void enableArchive(ArchiveStore store, long age, TimeUnit unit) {
+        if (store == null) {
+            throw new IllegalArgumentException("Archive store cannot be null");
+        }
+        if (age < 0) {
+            throw new IllegalArgumentException("Archive age cannot be negative");
+        }
+        this.archiveAfterMillis = unit.toMillis(age);
+        this.archive = store;
+    }
+
+    public ArchiveStore getArchive() {
+        return archive;
+    }
+
+    public void startArchiving() {
+        startArchiving(DEFAULT_ARCHIVE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // Runs archiveCompleted every interval until stopArchiving is called
+    public synchronized void startArchiving(long interval, TimeUnit unit) {
+        if (archive == null) {
+            throw new IllegalStateException("Archive is not enabled");
+        }
+        if (archiveScheduler != null) {
+            throw new IllegalStateException("Archiving is already running");
+        }
+        if (interval <= 0 || unit == null) {
+            throw new IllegalArgumentException("Archive interval must be positive");
+        }
+        archiveScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        archiveScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archiveCompleted();
+            } catch (Exception e) {
+                System.err.println("Error archiving transactions: " + e.getMessage());
+            }
+        }, interval, interval, unit);
+    }
+
+    public synchronized void stopArchiving() {
+        if (archiveScheduler != null) {
+            archiveScheduler.shutdownNow();
+            archiveScheduler = null;
+        }
+    }
+
+    // Writes every eligible transaction to a new archive segment, then drops it
+    // and its item from the in-memory indexes. Returns how many were archived.
+    public synchronized int archiveCompleted() {
+        ArchiveStore store = archive;
+        if (store == null) {
+            throw new IllegalStateException("Archive is not enabled");
+        }
+        long now = System.currentTimeMillis();
+        Date cutoff = new Date(now - archiveAfterMillis);
+        List<Transaction> eligible = new ArrayList<>();
+        List<ArchivedTransaction> records = new ArrayList<>();
+        // Each record is taken under the transaction's stripes, and the
+        // transaction is frozen in the same step, so no review can land
+        // between the record and the removal
+        for (Transaction transaction : transactionIndex.getInStatusSince(ShippingStatus.DELIVERED, cutoff)) {
+            StripedLocks.Held held = stripes.lock(purchaseKeys(transaction.getBuyer(), transaction.getItem()));
+            try {
+                if (transaction.isArchived() || transaction.getPayment_status() != PaymentStatus.COMPLETED) {
+                    continue;
+                }
+                transaction.setArchived(true);
+                eligible.add(transaction);
+                records.add(ArchivedTransaction.of(transaction, now));
+            } finally {
+                held.unlock();
+            }
+        }
+        if (eligible.isEmpty()) {
+            return 0;
+        }
+        // Written before anything is dropped, so a failed write loses nothing
+        try {
+            store.append(records);
+        } catch (RuntimeException e) {
+            for (Transaction transaction : eligible) {
+                transaction.setArchived(false);
+            }
+            throw e;
+        }
+        for (Transaction transaction : eligible) {
+            removeArchived(transaction);
+        }
+        return eligible.size();
+    }
+
+    // Drops an archived transaction and the item it sold from memory. Replicas
+    // call this when the primary's log says the transaction was archived, so it
+    // is public, but it refuses anything not yet delivered and paid for.
+    public void removeArchived(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        ForSaleItem item = transaction.getItem();
+        StripedLocks.Held held = stripes.lock(purchaseKeys(transaction.getBuyer(), item));
+        try {
+            if (transactions.get(transaction.getTransaction_id()) != transaction) {
+                throw new IllegalArgumentException("Unknown transaction " + transaction.getTransaction_id());
+            }
+            if (transaction.getShipping_status() != ShippingStatus.DELIVERED
+                    || transaction.getPayment_status() != PaymentStatus.COMPLETED) {
+                throw new IllegalStateException("Only delivered, paid transactions can be archived");
+            }
+            transaction.setArchived(true);
+            transactions.remove(transaction.getTransaction_id());
+            transactionIndex.remove(transaction);
+            shippingSlaMonitor.untrack(transaction);
+            transaction.getBuyer().removeTransaction(transaction);
+            transaction.getSeller().removeTransaction(transaction);
+            catalog.removeItem(item);
+            publish(MutationType.ARCHIVE, transaction.getTransaction_id(), item.getItem_id());
+        } finally {
+            held.unlock();
+        }
+    }
+
+    public ArchivedTransaction findArchivedTransaction(String transactionId) {
+        ArchiveStore store = archive;
+        return store != null ? store.findByTransactionId(transactionId) : null;
+    }
+
+    public ArchivedTransaction findArchivedSale(String itemId) {
+        ArchiveStore store = archive;
+        return store != null ? store.findByItemId(itemId) : null;
+    }
+
+    public List<ArchivedTransaction> getArchivedTransactions(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        ArchiveStore store = archive;
+        return store != null ? store.findByUser(user.getUser_id()) : new ArrayList<>();
+    }
+
+    public List<Transaction> getTransactionsBetween(Date from, Date to) {
+        return transactionIndex.getTransactionsBetween(from, to);
+    }
+
+    public List<Transaction> getShippedNotDeliveredOlderThan(int days) {
+        return transactionIndex.getShippedNotDeliveredOlderThan(days);
+    }
+
+    // Best k matches for the query, most relevant first
+    public List<Item> searchRanked(String query, int k) {
+        return searchCache.ranked(query, k, () -> relevanceIndex.search(query, k));
+    }
+
+    public List<Item> search(String keyword) {
+        return searchCache.search(keyword);
+    }
+
+    // Ranked search that first corrects misspelled terms ("phisics" -> "physics")
+    public List<Item> searchFuzzy(String query, int k) {
+        return relevanceIndex.search(fuzzyMatcher.correct(query), k);
+    }
+
+    public String correctQuery(String query) {
+        return fuzzyMatcher.correct(query);
+    }
+
+    public List<String> autocomplete(String prefix, int limit) {
+        return autocompleteIndex.complete(prefix, limit);
+    }
+
+    // Picked suggestions rank higher next time
+    public void recordSuggestionPicked(String phrase) {
+        autocompleteIndex.addPhrase(phrase, 1);
+        publish(MutationType.SUGGESTION_PICKED, phrase);
+    }
+
+    // Facets for a keyword/filter query, reflecting the same matches as search and filterItems
+    public FacetCounts getFacets(String keyword, Category category, GradeLevel grade, Float minPrice, Float maxPrice, String subject, Condition condition) {
+        return catalog.computeFacets(keyword, category, grade, minPrice, maxPrice, subject, condition);
+    }
+
+    // Facets for the items a ranked search for the query can return
+    public FacetCounts getRankedFacets(String query) {
+        return relevanceIndex.facets(query);
+    }
+
+    // Facets for what a ranked search returns, or for the corrected query when
+    // nothing ranks and the caller falls back to searchFuzzy. Ranked search is
+    // empty exactly when no live item matches a query term.
+    public FacetCounts getRankedFacetsWithFallback(String query) {
+        FacetCounts facets = relevanceIndex.facets(query);
+        return facets.getTotal() > 0 ? facets : relevanceIndex.facets(fuzzyMatcher.correct(query));
+    }
+
     public List<Item> searchItems(String keyword, Category category, GradeLevel grade, float minPrice, float maxPrice, String subject, Condition condition) {
-        return catalog.filterItems(category, grade, minPrice, maxPrice, subject, condition);
+        return searchCache.filter(category, grade, minPrice, maxPrice, subject, condition);
     }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.studentexchange.services;
+
+import com.studentexchange.enums.ShippingStatus;
+import com.studentexchange.models.Transaction;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Transactions partitioned into fixed-width time buckets, plus one bucketed
+// sub-index per shipping status keyed by the time the transaction entered that
+// status. Range queries only touch the buckets that overlap the range.
+public class TransactionIndex {
+    private static final long DEFAULT_BUCKET_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final long bucketMillis;
+    private final NavigableMap<Long, Map<String, Transaction>> byTime = new TreeMap<>();
+    private final Map<ShippingStatus, NavigableMap<Long, Map<String, Transaction>>> byStatus = new EnumMap<>(ShippingStatus.class);
+    private final Map<String, ShippingStatus> indexedStatus = new HashMap<>();
+    private final Map<String, Long> statusBucket = new HashMap<>();
+
+    public TransactionIndex() {
+        this(DEFAULT_BUCKET_MILLIS);
+    }
+
+    public TransactionIndex(long bucketMillis) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket width must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        for (ShippingStatus status : ShippingStatus.values()) {
+            byStatus.put(status, new TreeMap<>());
+        }
+    }
+
+    public synchronized void add(Transaction transaction) {
+        try {
+            if (transaction == null) {
+                throw new IllegalArgumentException("Transaction cannot be null");
+            }
+            String id = transaction.getTransaction_id();
+            if (indexedStatus.containsKey(id)) {
+                throw new IllegalArgumentException("Transaction " + id + " is already indexed");
+            }
+            long time = transaction.getTransaction_date().getTime();
+            byTime.computeIfAbsent(bucketOf(time), k -> new LinkedHashMap<>()).put(id, transaction);
+            putStatus(transaction);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to index transaction: " + e.getMessage());
+        }
+    }
+
+    // Moves the transaction to the sub-index for its current shipping status.
+    public synchronized void updateStatus(Transaction transaction) {
+        try {
+            if (transaction == null) {
+                throw new IllegalArgumentException("Transaction cannot be null");
+            }
+            String id = transaction.getTransaction_id();
+            ShippingStatus previous = indexedStatus.get(id);
+            if (previous == null) {
+                throw new IllegalArgumentException("Transaction " + id + " is not indexed");
+            }
+            if (previous == transaction.getShipping_status()) {
+                return;
+            }
+            Map<String, Transaction> bucket = byStatus.get(previous).get(statusBucket.get(id));
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    byStatus.get(previous).remove(statusBucket.get(id));
+                }
+            }
+            putStatus(transaction);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to update transaction index: " + e.getMessage());
+        }
+    }
+
+    public synchronized boolean remove(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        String id = transaction.getTransaction_id();
+        ShippingStatus status = indexedStatus.remove(id);
+        if (status == null) {
+            return false;
+        }
+        Long bucketKey = statusBucket.remove(id);
+        Map<String, Transaction> bucket = byStatus.get(status).get(bucketKey);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                byStatus.get(status).remove(bucketKey);
+            }
+        }
+        long timeBucket = bucketOf(transaction.getTransaction_date().getTime());
+        Map<String, Transaction> sameDay = byTime.get(timeBucket);
+        if (sameDay != null) {
+            sameDay.remove(id);
+            if (sameDay.isEmpty()) {
+                byTime.remove(timeBucket);
+            }
+        }
+        return true;
+    }
+
+    public synchronized List<Transaction> getTransactionsBetween(Date from, Date to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+        long start = from.getTime();
+        long end = to.getTime();
+        List<Transaction> results = new ArrayList<>();
+        if (start > end) {
+            return results;
+        }
+        for (Map<String, Transaction> bucket : byTime.subMap(bucketOf(start), true, bucketOf(end), true).values()) {
+            for (Transaction transaction : bucket.values()) {
+                long time = transaction.getTransaction_date().getTime();
+                if (time >= start && time <= end) {
+                    results.add(transaction);
+                }
+            }
+        }
+        return results;
+    }
+
+    // Transactions that have been in the given status since before the cutoff.
+    public synchronized List<Transaction> getInStatusSince(ShippingStatus status, Date cutoff) {
+        if (status == null || cutoff == null) {
+            throw new IllegalArgumentException("Status and cutoff cannot be null");
+        }
+        long limit = cutoff.getTime();
+        List<Transaction> results = new ArrayList<>();
+        for (Map<String, Transaction> bucket : byStatus.get(status).headMap(bucketOf(limit), true).values()) {
+            for (Transaction transaction : bucket.values()) {
+                if (statusTime(transaction) <= limit) {
+                    results.add(transaction);
+                }
+            }
+        }
+        return results;
+    }
+
+    public List<Transaction> getShippedNotDeliveredOlderThan(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days cannot be negative");
+        }
+        return getInStatusSince(ShippingStatus.SHIPPED, new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days)));
+    }
+
+    public synchronized int size() {
+        return indexedStatus.size();
+    }
+
+    private void putStatus(Transaction transaction) {
+        String id = transaction.getTransaction_id();
+        ShippingStatus status = transaction.getShipping_status();
+        long bucket = bucketOf(statusTime(transaction));
+        byStatus.get(status).computeIfAbsent(bucket, k -> new LinkedHashMap<>()).put(id, transaction);
+        indexedStatus.put(id, status);
+        statusBucket.put(id, bucket);
+    }
+
+    private long statusTime(Transaction transaction) {
+        Date date = null;
+        switch (transaction.getShipping_status()) {
+            case SHIPPED:
+                date = transaction.getShipping_date();
+                break;
+            case DELIVERED:
+                date = transaction.getDelivery_date();
+                break;
+            default:
+                break;
+        }
+        return date != null ? date.getTime() : transaction.getTransaction_date().getTime();
+    }
+
+    private long bucketOf(long time) {
+        return Math.floorDiv(time, bucketMillis);
+    }
+}
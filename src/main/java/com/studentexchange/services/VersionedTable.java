@@ -0,0 +1,114 @@
+package com.studentexchange.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Persistent table of immutable values keyed by id. Values live in fixed-size
+// chunks addressed by an ordinal assigned the first time an id is seen; a new
+// version copies only the chunks it changes plus the small array of chunk
+// references, and shares every other chunk with the version it came from.
+// Only one thread may derive new versions; any number may read old ones.
+final class VersionedTable<V> {
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Id -> ordinal, shared by every version derived from the same empty table.
+    // Ordinals are only ever added, so an old version simply ignores ordinals
+    // past its own length.
+    private static final class Ordinals {
+        final Map<String, Integer> byId = new ConcurrentHashMap<>();
+        int next;
+    }
+
+    private final Ordinals ordinals;
+    private final Object[][] chunks;
+    private final int length;
+    private final int size;
+
+    private VersionedTable(Ordinals ordinals, Object[][] chunks, int length, int size) {
+        this.ordinals = ordinals;
+        this.chunks = chunks;
+        this.length = length;
+        this.size = size;
+    }
+
+    static <V> VersionedTable<V> empty() {
+        return new VersionedTable<>(new Ordinals(), new Object[0][], 0, 0);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked") // chunks only ever hold values of type V
+    V get(String id) {
+        Integer ordinal = id != null ? ordinals.byId.get(id) : null;
+        if (ordinal == null || ordinal >= length) {
+            return null;
+        }
+        Object[] chunk = chunks[ordinal >>> CHUNK_BITS];
+        return chunk != null ? (V) chunk[ordinal & CHUNK_MASK] : null;
+    }
+
+    // Values in the order their ids were first added
+    @SuppressWarnings("unchecked") // chunks only ever hold values of type V
+    List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        for (Object[] chunk : chunks) {
+            if (chunk == null) {
+                continue;
+            }
+            for (Object value : chunk) {
+                if (value != null) {
+                    values.add((V) value);
+                }
+            }
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    // A new version with the given values put; a null value removes the id
+    VersionedTable<V> with(Map<String, V> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        Object[][] next = chunks.clone();
+        boolean[] copied = new boolean[next.length];
+        int nextLength = length;
+        int nextSize = size;
+        for (Map.Entry<String, V> change : changes.entrySet()) {
+            Integer ordinal = ordinals.byId.get(change.getKey());
+            if (ordinal == null) {
+                if (change.getValue() == null) {
+                    continue;
+                }
+                ordinal = ordinals.next++;
+                ordinals.byId.put(change.getKey(), ordinal);
+            }
+            int index = ordinal >>> CHUNK_BITS;
+            if (index >= next.length) {
+                int grown = Math.max(index + 1, next.length * 2);
+                next = Arrays.copyOf(next, grown);
+                copied = Arrays.copyOf(copied, grown);
+            }
+            if (!copied[index]) {
+                next[index] = next[index] != null ? next[index].clone() : new Object[CHUNK_SIZE];
+                copied[index] = true;
+            }
+            Object previous = next[index][ordinal & CHUNK_MASK];
+            next[index][ordinal & CHUNK_MASK] = change.getValue();
+            if (previous == null && change.getValue() != null) {
+                nextSize++;
+            } else if (previous != null && change.getValue() == null) {
+                nextSize--;
+            }
+            nextLength = Math.max(nextLength, ordinal + 1);
+        }
+        return new VersionedTable<>(ordinals, next, nextLength, nextSize);
+    }
+}
@@ -4,6 +4,7 @@ module studentExchangeSystem {
     requires javafx.fxml;
     requires java.desktop;
     requires java.management;
+    requires jdk.httpserver;
 
     opens com.studentexchange to javafx.fxml;
     exports com.studentexchange;
@@ -0,0 +1,129 @@
+package com.studentexchange.models;
+
+import com.studentexchange.enums.Category;
+import com.studentexchange.enums.Condition;
+import com.studentexchange.enums.GradeLevel;
+import com.studentexchange.enums.ShardStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogTest {
+    private User uploader;
+
+    @BeforeEach
+    void setUp() {
+        uploader = new User("Ali Khan", "12345-1234567-1", "ali@x.com", "Passw0rd!", "03001234567", "Lahore street 1");
+    }
+
+    private Book book(int i, Category category) {
+        return new Book("Organic Chemistry " + i, uploader, "Clean copy", category, GradeLevel.GRADE_11, "Chemistry",
+                Condition.GOOD, 1000, 900, "Halliday", "1st", "Wiley", 100, false);
+    }
+
+    private List<Book> books(int count) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            books.add(book(i, i % 3 == 0 ? Category.NOTES : Category.BOOK));
+        }
+        return books;
+    }
+
+    @Test
+    void hashedShardsMergeBackIntoInsertionOrder() {
+        Catalog catalog = new Catalog(ShardStrategy.ITEM_HASH, 4);
+        List<Book> books = books(3000);
+        catalog.addItem(books.get(0));
+        catalog.addItems(books.subList(1, 1500));
+        for (Book book : books.subList(1500, 3000)) {
+            catalog.addItem(book);
+        }
+
+        for (int shardSize : catalog.getShardSizes()) {
+            assertTrue(shardSize > 0, "every shard should hold some items");
+        }
+        assertIterableEquals(books, catalog.getItems());
+        catalog.setParallel_scan(false);
+        assertIterableEquals(books, catalog.getItems());
+    }
+
+    @Test
+    void categoryShardsMergeBackIntoInsertionOrder() {
+        Catalog catalog = new Catalog();
+        List<Book> books = books(300);
+        catalog.addItems(books);
+        assertIterableEquals(books, catalog.getItems());
+    }
+
+    @Test
+    void soldItemsLeaveTheLiveViewAndReturnInPlaceWhenCancelled() {
+        Catalog catalog = new Catalog(ShardStrategy.ITEM_HASH, 4);
+        List<Book> books = books(40);
+        catalog.addItems(books);
+
+        List<Book> live = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            if (i % 4 == 1) {
+                books.get(i).setIs_sold(true);
+            } else {
+                live.add(books.get(i));
+            }
+        }
+        assertEquals(30, catalog.getAvailableCount());
+        assertIterableEquals(live, catalog.getAvailableItems());
+        assertIterableEquals(books, catalog.getItems());
+
+        books.get(5).setIs_sold(false);
+        live.add(4, books.get(5));
+        assertEquals(31, catalog.getAvailableCount());
+        assertIterableEquals(live, catalog.getAvailableItems());
+    }
+
+    @Test
+    void removedItemsLeaveBothViews() {
+        Catalog catalog = new Catalog(ShardStrategy.ITEM_HASH, 2);
+        List<Book> books = books(10);
+        catalog.addItems(books);
+        books.get(3).setIs_sold(true);
+
+        assertTrue(catalog.removeItem(books.get(3)));
+        assertTrue(catalog.removeItem(books.get(4)));
+        assertFalse(catalog.removeItem(books.get(4)));
+
+        List<Book> remaining = new ArrayList<>(books);
+        remaining.remove(4);
+        remaining.remove(3);
+        assertEquals(8, catalog.size());
+        assertEquals(8, catalog.getAvailableCount());
+        assertIterableEquals(remaining, catalog.getItems());
+        assertIterableEquals(remaining, catalog.getAvailableItems());
+    }
+
+    @Test
+    void shardLiveCountIgnoresRepeatedUpdates() {
+        CatalogShard shard = new CatalogShard();
+        Book first = book(1, Category.BOOK);
+        Book second = book(2, Category.BOOK);
+        shard.add(1, first);
+        shard.add(2, second);
+
+        first.setIs_sold(true);
+        shard.updateAvailability(first);
+        shard.updateAvailability(first);
+        assertEquals(1, shard.liveSize());
+        assertEquals(2, shard.size());
+
+        first.setIs_sold(false);
+        shard.updateAvailability(first);
+        shard.updateAvailability(first);
+        assertEquals(2, shard.liveSize());
+        List<CatalogShard.Slot> slots = shard.collect(item -> true, "test", null, true);
+        assertEquals(2, slots.size());
+        assertSame(first, slots.get(0).item);
+        assertSame(second, slots.get(1).item);
+    }
+}
@@ -0,0 +1,128 @@
+package com.studentexchange.services;
+
+import com.studentexchange.enums.ImportFormat;
+import com.studentexchange.models.Item;
+import com.studentexchange.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+    private static final String HEADER = "title,description,grade,subject,condition,market_price,price,author,edition,publisher,pages\n";
+
+    private StudentBookExchange system;
+    private BulkImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        system = new StudentBookExchange();
+        User uploader = system.registerUser("Ali Khan", "12345-1234567-1", "ali@x.com", "Passw0rd!", "03001234567", "Lahore street 1");
+        importer = new BulkImporter(system, uploader);
+    }
+
+    private static String csvRow(String title, String description) {
+        return title + "," + description + ",GRADE_11,Chemistry,GOOD,1000,900,Halliday,1st,Wiley,100\n";
+    }
+
+    private static String jsonObject(String title, String description) {
+        return "{\"title\": \"" + title + "\", \"description\": \"" + description + "\", \"grade\": \"GRADE_11\","
+                + " \"subject\": \"Chemistry\", \"condition\": \"GOOD\", \"market_price\": 1000, \"price\": 900,"
+                + " \"author\": \"Halliday\", \"edition\": \"1st\", \"publisher\": \"Wiley\", \"pages\": 100}";
+    }
+
+    private List<String> titles() {
+        List<String> titles = new ArrayList<>();
+        for (Item item : system.getCatalog().getItems()) {
+            titles.add(item.getTitle());
+        }
+        return titles;
+    }
+
+    @Test
+    void quotedCsvFieldsKeepCommasQuotesAndNewlines() {
+        String csv = HEADER
+                + csvRow("Organic Chemistry", "\"Clean, \"\"annotated\"\"\nsecond line\"")
+                + "Physical Chemistry,Worn copy,GRADE_11,Chemistry,GOOD,1000,cheap,Halliday,1st,Wiley,100\n";
+
+        BulkImporter.Result result = importer.importFrom(new StringReader(csv), ImportFormat.CSV);
+
+        assertEquals(2, result.getRowsRead());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("Clean, \"annotated\"\nsecond line", system.getCatalog().getItems().get(0).getDescription());
+        // The quoted newline makes the first row span lines 2-3
+        assertEquals(4, result.getErrors().get(0).getLine());
+    }
+
+    @Test
+    void unterminatedCsvQuoteFailsOnlyItsOwnRow() {
+        String csv = HEADER
+                + csvRow("Organic Chemistry", "Fine")
+                + csvRow("Physical Chemistry", "\"Quote that never closes")
+                + csvRow("Inorganic Chemistry", "Fine")
+                + csvRow("Analytical Chemistry", "Fine");
+
+        BulkImporter.Result result = importer.importFrom(new StringReader(csv), ImportFormat.CSV);
+
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getFailed());
+        BulkImporter.RowError error = result.getErrors().get(0);
+        assertEquals(3, error.getLine());
+        assertEquals("Unterminated quoted field", error.getMessage());
+        assertEquals(List.of("Organic Chemistry", "Inorganic Chemistry", "Analytical Chemistry"), titles());
+    }
+
+    @Test
+    void csvHeaderMissingAColumnIsRejected() {
+        String csv = "title,description,grade,subject,condition,market_price,price,author,edition,publisher\n";
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> importer.importFrom(new StringReader(csv), ImportFormat.CSV));
+        assertTrue(e.getMessage().contains("missing column 'pages'"), e.getMessage());
+    }
+
+    @Test
+    void jsonSplitterIgnoresBracesInsideStrings() {
+        String json = "[\n" + jsonObject("Organic Chemistry", "Has {braces} and \\\"quotes\\\" }") + ",\n"
+                + jsonObject("Physical Chemistry", "Fine") + "\n]";
+
+        BulkImporter.Result result = importer.importFrom(new StringReader(json), ImportFormat.JSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals("Has {braces} and \"quotes\" }", system.getCatalog().getItems().get(0).getDescription());
+    }
+
+    @Test
+    void jsonTextBetweenObjectsIsOneRowError() {
+        String json = jsonObject("Organic Chemistry", "Fine") + "\nnot an object\n"
+                + jsonObject("Physical Chemistry", "Fine");
+
+        BulkImporter.Result result = importer.importFrom(new StringReader(json), ImportFormat.JSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals("Expected a JSON object", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void unterminatedJsonObjectResumesAtTheNextObject() {
+        String open = jsonObject("Organic Chemistry", "Fine");
+        String json = open.substring(0, open.length() - 1) + "\n"
+                + jsonObject("Physical Chemistry", "Fine") + "\n"
+                + jsonObject("Inorganic Chemistry", "Fine");
+
+        BulkImporter.Result result = importer.importFrom(new StringReader(json), ImportFormat.JSON);
+
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getErrors().get(0).getLine());
+        assertEquals("Unterminated JSON object", result.getErrors().get(0).getMessage());
+        // The second object was swallowed by the open first one and is read again
+        assertEquals(List.of("Physical Chemistry", "Inorganic Chemistry"), titles());
+    }
+}
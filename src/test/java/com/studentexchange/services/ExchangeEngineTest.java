@@ -0,0 +1,97 @@
+package com.studentexchange.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeEngineTest {
+
+    @Test
+    void appliesCommandsInOrderOnOneThread() throws Exception {
+        StudentBookExchange system = new StudentBookExchange();
+        try (ExchangeEngine engine = new ExchangeEngine(system, 16)) {
+            List<String> threads = new ArrayList<>();
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+                results.add(engine.submit(s -> {
+                    threads.add(Thread.currentThread().getName());
+                    return value;
+                }));
+            }
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(100, threads.size());
+            assertTrue(threads.stream().allMatch("exchange-writer"::equals));
+        }
+    }
+
+    @Test
+    void commandFailureCompletesItsFutureExceptionally() throws Exception {
+        StudentBookExchange system = new StudentBookExchange();
+        try (ExchangeEngine engine = new ExchangeEngine(system)) {
+            CompletableFuture<Object> failed = engine.submit(s -> {
+                throw new IllegalArgumentException("bad command");
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOfIae(e.getCause());
+            assertEquals(1, engine.submit(s -> 1).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void submitAfterCloseFailsWithoutRunning() throws Exception {
+        StudentBookExchange system = new StudentBookExchange();
+        ExchangeEngine engine = new ExchangeEngine(system);
+        engine.close();
+        AtomicInteger ran = new AtomicInteger();
+        CompletableFuture<Integer> result = engine.submit(s -> ran.incrementAndGet());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("Engine is stopped", e.getCause().getMessage());
+        assertEquals(0, ran.get());
+    }
+
+    // A command racing close() either runs and completes normally, or is
+    // reported stopped and never runs; never both, and never left pending
+    @Test
+    void commandsRacingCloseRunExactlyWhenReportedRun() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            StudentBookExchange system = new StudentBookExchange();
+            ExchangeEngine engine = new ExchangeEngine(system, 4);
+            AtomicInteger ran = new AtomicInteger();
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            Thread submitter = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    results.add(engine.submit(s -> ran.incrementAndGet()));
+                }
+            });
+            submitter.start();
+            engine.close();
+            submitter.join();
+
+            int completed = 0;
+            for (CompletableFuture<Integer> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                    completed++;
+                } catch (ExecutionException e) {
+                    assertEquals("Engine is stopped", e.getCause().getMessage());
+                }
+            }
+            assertEquals(ran.get(), completed);
+        }
+    }
+
+    private static void assertInstanceOfIae(Throwable cause) {
+        assertTrue(cause instanceof IllegalArgumentException, "unexpected " + cause);
+        assertEquals("bad command", cause.getMessage());
+    }
+}
@@ -0,0 +1,115 @@
+package com.studentexchange.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void rejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<String>(3));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<String>(1));
+    }
+
+    @Test
+    void rejectsNullElements() {
+        RingBuffer<String> buffer = new RingBuffer<>(4);
+        assertThrows(IllegalArgumentException.class, () -> buffer.offer(null));
+    }
+
+    @Test
+    void pollsInOfferOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertEquals(5, buffer.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void refusesOffersWhenFullAndAcceptsAgainAfterPoll() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        assertEquals(List.of(1, 2, 3, 4), drain(buffer));
+    }
+
+    @Test
+    void wrapsAroundManyTimes() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(buffer.offer(i));
+            assertTrue(buffer.offer(i + 1000));
+            assertEquals(i, buffer.poll());
+            assertEquals(i + 1000, buffer.poll());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        RingBuffer<long[]> buffer = new RingBuffer<>(64);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long[] next = new long[producers];
+        Set<Long> seen = new HashSet<>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            long[] element = buffer.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = (int) element[0];
+            assertEquals(next[producer], element[1], "producer " + producer + " out of order");
+            next[producer]++;
+            assertTrue(seen.add(element[0] * perProducer + element[1]));
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(buffer.poll());
+    }
+
+    private static <E> List<E> drain(RingBuffer<E> buffer) {
+        List<E> drained = new ArrayList<>();
+        E element;
+        while ((element = buffer.poll()) != null) {
+            drained.add(element);
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,65 @@
+package com.studentexchange.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLocksTest {
+
+    @Test
+    void stripeCountMustBeAPowerOfTwo() {
+        assertEquals(8, new StripedLocks(8).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(12));
+    }
+
+    @Test
+    void heldKeyBlocksOtherThreadsUntilUnlocked() throws Exception {
+        StripedLocks locks = new StripedLocks(16);
+        StripedLocks.Held held = locks.lock("USER_001", null, "USER_001");
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> locks.lock("USER_001").unlock());
+        Thread.sleep(100);
+        assertFalse(waiter.isDone());
+        held.unlock();
+        waiter.get(5, TimeUnit.SECONDS);
+    }
+
+    // Each thread asks for the same keys in the opposite order; acquiring the
+    // stripes in index order is what keeps them from deadlocking
+    @Test
+    void keysInOppositeOrderDoNotDeadlock() throws Exception {
+        StripedLocks locks = new StripedLocks(4);
+        String[] keys = {"USER_001", "USER_002", "ITEM_001", "ITEM_002"};
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger acquired = new AtomicInteger();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean reversed = t % 2 == 1;
+            workers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 2000; i++) {
+                    String first = keys[i % keys.length];
+                    String second = keys[(i + 1) % keys.length];
+                    StripedLocks.Held held = reversed ? locks.lock(second, first) : locks.lock(first, second);
+                    acquired.incrementAndGet();
+                    held.unlock();
+                }
+            }));
+        }
+        start.countDown();
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        assertEquals(8000, acquired.get());
+    }
+}
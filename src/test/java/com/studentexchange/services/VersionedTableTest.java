@@ -0,0 +1,84 @@
+package com.studentexchange.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedTableTest {
+
+    @Test
+    void emptyTableHasNothing() {
+        VersionedTable<String> table = VersionedTable.empty();
+        assertEquals(0, table.size());
+        assertNull(table.get("a"));
+        assertNull(table.get(null));
+        assertTrue(table.values().isEmpty());
+    }
+
+    @Test
+    void noChangesReturnsSameVersion() {
+        VersionedTable<String> table = VersionedTable.<String>empty().with(Map.of("a", "1"));
+        assertSame(table, table.with(Map.of()));
+    }
+
+    @Test
+    void putUpdateAndRemove() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("a", "1");
+        first.put("b", "2");
+        VersionedTable<String> v1 = VersionedTable.<String>empty().with(first);
+        assertEquals(2, v1.size());
+        assertEquals("1", v1.get("a"));
+
+        Map<String, String> second = new HashMap<>();
+        second.put("a", "1b");
+        second.put("b", null);
+        second.put("missing", null);
+        VersionedTable<String> v2 = v1.with(second);
+        assertEquals(1, v2.size());
+        assertEquals("1b", v2.get("a"));
+        assertNull(v2.get("b"));
+        assertNull(v2.get("missing"));
+        assertEquals(List.of("1b"), v2.values());
+    }
+
+    @Test
+    void oldVersionsAreUnaffectedByNewOnes() {
+        VersionedTable<String> v1 = VersionedTable.<String>empty().with(Map.of("a", "1"));
+        VersionedTable<String> v2 = v1.with(Map.of("a", "2", "b", "3"));
+
+        assertEquals("1", v1.get("a"));
+        assertNull(v1.get("b"), "an id added later must not show in an older version");
+        assertEquals(1, v1.size());
+        assertEquals(List.of("1"), v1.values());
+
+        assertEquals("2", v2.get("a"));
+        assertEquals("3", v2.get("b"));
+        assertEquals(2, v2.size());
+    }
+
+    @Test
+    void valuesKeepFirstInsertionOrderAcrossChunks() {
+        Map<String, Integer> changes = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            changes.put("id" + i, i);
+        }
+        VersionedTable<Integer> table = VersionedTable.<Integer>empty().with(changes);
+        assertEquals(1000, table.size());
+        List<Integer> values = table.values();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, values.get(i));
+        }
+
+        VersionedTable<Integer> updated = table.with(Map.of("id999", -1, "id0", -2));
+        assertEquals(-2, updated.values().get(0));
+        assertEquals(-1, updated.values().get(999));
+        assertEquals(0, table.get("id0"));
+        assertEquals(999, table.get("id999"));
+    }
+}